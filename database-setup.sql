@@ -47,34 +47,118 @@ CREATE TABLE IF NOT EXISTS product (
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
 );
 
--- Transaction history table
+-- Transaction history table (partitioned by month of transaction_date)
 CREATE TABLE IF NOT EXISTS transaction_history (
-    id SERIAL PRIMARY KEY,
+    id SERIAL,
     transaction_date DATE NOT NULL,
     total_price DECIMAL(15,2) DEFAULT 0,
-    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
-);
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (id, transaction_date)
+) PARTITION BY RANGE (transaction_date);
 
--- Transaction detail table
+-- Transaction detail table (partitioned by month of transaction_date)
 CREATE TABLE IF NOT EXISTS transaction_detail (
-    id SERIAL PRIMARY KEY,
-    transaction_id INTEGER REFERENCES transaction_history(id) ON DELETE CASCADE,
+    id SERIAL,
+    transaction_id INTEGER NOT NULL,
+    transaction_date DATE NOT NULL,
     product_id INTEGER REFERENCES product(id),
     qty INTEGER NOT NULL,
     price DECIMAL(15,2) NOT NULL,
     total_price DECIMAL(15,2) NOT NULL,
-    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
-);
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (id, transaction_date),
+    FOREIGN KEY (transaction_id, transaction_date)
+        REFERENCES transaction_history(id, transaction_date) ON DELETE CASCADE
+) PARTITION BY RANGE (transaction_date);
 
--- Stock log table
+-- Stock log table (partitioned by month of created_at)
 CREATE TABLE IF NOT EXISTS stock_log (
-    id SERIAL PRIMARY KEY,
+    id SERIAL,
     product_id INTEGER REFERENCES product(id),
     quantity_change INTEGER NOT NULL,
     log_type VARCHAR(20) NOT NULL,
-    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+    movement_count INTEGER NOT NULL DEFAULT 1,
+    ledger_pending BOOLEAN NOT NULL DEFAULT FALSE,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (id, created_at)
+) PARTITION BY RANGE (created_at);
+
+-- Processed message table (idempotent consumption)
+-- transaction_id has no foreign key: the partitioned transaction_history is
+-- unique only on (id, transaction_date)
+CREATE TABLE IF NOT EXISTS processed_message (
+    id SERIAL PRIMARY KEY,
+    message_id VARCHAR(200) NOT NULL,
+    transaction_id INTEGER,
+    processed_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Daily sales rollup (one row per day and product, maintained by the consumer)
+CREATE TABLE IF NOT EXISTS daily_sales_rollup (
+    sale_date DATE NOT NULL,
+    product_id INTEGER NOT NULL REFERENCES product(id),
+    transaction_count BIGINT NOT NULL DEFAULT 0,
+    units_sold BIGINT NOT NULL DEFAULT 0,
+    revenue DECIMAL(17,2) NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (sale_date, product_id)
 );
 
+-- Transactions per day; one transaction can appear in several product rows
+-- of daily_sales_rollup, so the day count is kept separately
+CREATE TABLE IF NOT EXISTS daily_sales_total (
+    sale_date DATE PRIMARY KEY,
+    transaction_count BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Rollup deltas appended by each sale, folded into daily_sales_rollup and
+-- daily_sales_total by the periodic flush (write-behind, no contention on
+-- hot rollup rows). Rows without a product carry the day's transaction count.
+CREATE TABLE IF NOT EXISTS daily_sales_rollup_delta (
+    sale_date DATE NOT NULL,
+    product_id INTEGER,
+    transaction_count BIGINT NOT NULL DEFAULT 0,
+    units_sold BIGINT NOT NULL DEFAULT 0,
+    revenue DECIMAL(17,2) NOT NULL DEFAULT 0
+);
+
+-- ============================================
+-- MONTHLY PARTITIONS
+-- ============================================
+
+-- Partitions are named <table>_yYYYYmMM. The consumer creates upcoming
+-- months and detaches expired ones (partition.maintenance.enabled); this
+-- creates last month through three months ahead for a fresh install. Rows
+-- outside every monthly range land in the default partition; when the
+-- consumer creates a monthly partition it moves that month's rows out of the
+-- default partition. Before detaching a stock_log partition it writes a
+-- CARRY_FORWARD row per product with the partition's balance.
+DO $$
+DECLARE
+    parent TEXT;
+    month DATE;
+BEGIN
+    FOREACH parent IN ARRAY ARRAY['transaction_history', 'transaction_detail', 'stock_log'] LOOP
+        FOR i IN -1..3 LOOP
+            month := date_trunc('month', CURRENT_DATE)::date + make_interval(months => i);
+            EXECUTE format('CREATE TABLE IF NOT EXISTS %I PARTITION OF %I FOR VALUES FROM (%L) TO (%L)',
+                parent || to_char(month, '"_y"YYYY"m"MM'), parent,
+                month, (month + INTERVAL '1 month')::date);
+        END LOOP;
+        EXECUTE format('CREATE TABLE IF NOT EXISTS %I PARTITION OF %I DEFAULT', parent || '_default', parent);
+    END LOOP;
+END $$;
+
+-- Migrating an existing, unpartitioned database (run per table, in a
+-- maintenance window; transaction_detail also needs transaction_date):
+-- ALTER TABLE transaction_detail RENAME TO transaction_detail_old;
+-- -- create the partitioned table and partitions as above, then:
+-- INSERT INTO transaction_detail (id, transaction_id, transaction_date, product_id, qty, price, total_price, created_at)
+-- SELECT td.id, td.transaction_id, th.transaction_date, td.product_id, td.qty, td.price, td.total_price, td.created_at
+-- FROM transaction_detail_old td JOIN transaction_history th ON th.id = td.transaction_id;
+-- DROP TABLE transaction_detail_old;
+
 -- ============================================
 -- CREATE INDEXES FOR PERFORMANCE
 -- ============================================
@@ -82,11 +166,20 @@ CREATE TABLE IF NOT EXISTS stock_log (
 CREATE INDEX idx_product_sku ON product(sku);
 CREATE INDEX idx_product_category ON product(category_id);
 CREATE INDEX idx_product_supplier ON product(supplier_id);
-CREATE INDEX idx_transaction_date ON transaction_history(transaction_date);
-CREATE INDEX idx_transaction_detail_transaction ON transaction_detail(transaction_id);
+-- Keyset pagination on (transaction_date, id) and (created_at, id)
+CREATE INDEX idx_transaction_date ON transaction_history(transaction_date, id);
+CREATE INDEX idx_transaction_detail_transaction ON transaction_detail(transaction_id, transaction_date);
 CREATE INDEX idx_transaction_detail_product ON transaction_detail(product_id);
-CREATE INDEX idx_stock_log_product ON stock_log(product_id);
-CREATE INDEX idx_stock_log_date ON stock_log(created_at);
+-- Covers the per-product SUM of stock reconciliation (index-only scans)
+CREATE INDEX idx_stock_log_product ON stock_log(product_id) INCLUDE (quantity_change, ledger_pending);
+CREATE INDEX idx_stock_log_date ON stock_log(created_at, id);
+CREATE INDEX idx_stock_log_type_date ON stock_log(log_type, created_at, id);
+-- Stock ledger: sales not yet applied to product.current_stock
+CREATE INDEX idx_stock_log_ledger_pending ON stock_log(product_id) WHERE ledger_pending;
+CREATE UNIQUE INDEX idx_processed_message_id ON processed_message(message_id);
+-- Retention cleanup of processed_message (ProcessedMessageCleanupService)
+CREATE INDEX idx_processed_message_processed_at ON processed_message(processed_at);
+CREATE INDEX idx_daily_sales_rollup_product ON daily_sales_rollup(product_id, sale_date);
 
 -- ============================================
 -- INSERT SAMPLE DATA
@@ -115,21 +208,159 @@ INSERT INTO product (sku, product_name, category_id, supplier_id, current_stock,
 ('CHA001', 'Office Chair Ergonomic', 3, 3, 50, 1200000.00),
 ('DES001', 'Office Desk Wood 120cm', 3, 3, 25, 2500000.00);
 
+-- Opening balances: stock reconciliation expects every unit of current_stock
+-- to be explained by stock_log
+INSERT INTO stock_log (product_id, quantity_change, log_type)
+SELECT id, current_stock, 'INITIAL' FROM product;
+
+-- ============================================
+-- SEQUENCE MIGRATION (POOLED ID GENERATION)
+-- ============================================
+
+-- Entities use pooled sequence generators (allocationSize = 50) so Hibernate
+-- can batch inserts. The SERIAL sequences must step by the same amount.
+-- Safe to run on an existing database: each sequence is moved past MAX(id).
+ALTER SEQUENCE product_id_seq INCREMENT BY 50;
+ALTER SEQUENCE transaction_history_id_seq INCREMENT BY 50;
+ALTER SEQUENCE transaction_detail_id_seq INCREMENT BY 50;
+ALTER SEQUENCE stock_log_id_seq INCREMENT BY 50;
+ALTER SEQUENCE processed_message_id_seq INCREMENT BY 50;
+
+SELECT setval('product_id_seq', COALESCE(MAX(id), 0) + 50) FROM product;
+SELECT setval('transaction_history_id_seq', COALESCE(MAX(id), 0) + 50) FROM transaction_history;
+SELECT setval('transaction_detail_id_seq', COALESCE(MAX(id), 0) + 50) FROM transaction_detail;
+SELECT setval('stock_log_id_seq', COALESCE(MAX(id), 0) + 50) FROM stock_log;
+SELECT setval('processed_message_id_seq', COALESCE(MAX(id), 0) + 50) FROM processed_message;
+
+-- ============================================
+-- OPENING BALANCE MIGRATION
+-- ============================================
+
+-- Stock reconciliation expects stock_log to explain all of current_stock,
+-- starting from an opening balance. Databases that were in use before
+-- stock_log was complete get one INITIAL row per product without an opening
+-- balance, equal to current_stock minus its applied movements, so the log
+-- explains today's stock. Run with consumption stopped; safe to run again.
+INSERT INTO stock_log (product_id, quantity_change, log_type, movement_count, ledger_pending, created_at)
+SELECT p.id,
+    p.current_stock - COALESCE(SUM(sl.quantity_change) FILTER (WHERE NOT sl.ledger_pending), 0),
+    'INITIAL', 1, FALSE, CURRENT_TIMESTAMP
+FROM product p
+LEFT JOIN stock_log sl ON sl.product_id = p.id
+WHERE NOT EXISTS (
+    SELECT 1 FROM stock_log b
+    WHERE b.product_id = p.id AND b.log_type IN ('INITIAL', 'CARRY_FORWARD')
+)
+GROUP BY p.id, p.current_stock;
+
+-- ============================================
+-- PRODUCT CHANGE NOTIFICATIONS
+-- ============================================
+
+-- The consumer caches product catalog data (sku, name, price) and LISTENs on
+-- the product_changed channel to invalidate it. Inserts notify too, since the
+-- cache also remembers product IDs that did not exist. Stock updates do not
+-- notify; stock is never served from the cache.
+CREATE OR REPLACE FUNCTION notify_product_changed() RETURNS trigger AS $$
+BEGIN
+    PERFORM pg_notify('product_changed', (CASE WHEN TG_OP = 'INSERT' THEN NEW.id ELSE OLD.id END)::text);
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS trg_product_changed ON product;
+CREATE TRIGGER trg_product_changed
+AFTER UPDATE OF sku, product_name, price ON product
+FOR EACH ROW
+WHEN (OLD.sku IS DISTINCT FROM NEW.sku
+      OR OLD.product_name IS DISTINCT FROM NEW.product_name
+      OR OLD.price IS DISTINCT FROM NEW.price)
+EXECUTE FUNCTION notify_product_changed();
+
+DROP TRIGGER IF EXISTS trg_product_inserted ON product;
+CREATE TRIGGER trg_product_inserted
+AFTER INSERT ON product
+FOR EACH ROW
+EXECUTE FUNCTION notify_product_changed();
+
+DROP TRIGGER IF EXISTS trg_product_deleted ON product;
+CREATE TRIGGER trg_product_deleted
+AFTER DELETE ON product
+FOR EACH ROW
+EXECUTE FUNCTION notify_product_changed();
+
 -- ============================================
 -- CREATE VIEWS FOR REPORTING
 -- ============================================
 
 -- Daily sales summary
+-- Reads the rollup instead of joining history to detail; revenue is summed
+-- per detail line, so it is no longer multiplied by the join fan-out.
+-- Transactions per day come from daily_sales_total, maintained with the
+-- rollup, since one transaction can appear in several product rollup rows.
+-- Both views add the delta rows the flush has not folded in yet, so they are
+-- exact as of each commit instead of lagging by sales.rollup.flush-interval-ms;
+-- the flush moves rows from the delta to the rollup in one statement.
 CREATE OR REPLACE VIEW v_daily_sales AS
 SELECT 
-    th.transaction_date,
-    COUNT(DISTINCT th.id) as total_transactions,
-    SUM(td.qty) as total_items_sold,
-    SUM(th.total_price) as total_revenue
-FROM transaction_history th
-LEFT JOIN transaction_detail td ON th.id = td.transaction_id
-GROUP BY th.transaction_date
-ORDER BY th.transaction_date DESC;
+    d.sale_date as transaction_date,
+    SUM(d.transaction_count)::BIGINT as total_transactions,
+    SUM(d.units_sold) as total_items_sold,
+    SUM(d.revenue) as total_revenue
+FROM (
+    SELECT sale_date, 0 as transaction_count, units_sold, revenue FROM daily_sales_rollup
+    UNION ALL
+    SELECT sale_date, transaction_count, 0, 0 FROM daily_sales_total
+    UNION ALL
+    SELECT sale_date, CASE WHEN product_id IS NULL THEN transaction_count ELSE 0 END, units_sold, revenue
+    FROM daily_sales_rollup_delta
+) d
+GROUP BY d.sale_date
+ORDER BY d.sale_date DESC;
+
+-- Daily sales per product, with category and supplier
+CREATE OR REPLACE VIEW v_daily_product_sales AS
+SELECT 
+    r.sale_date,
+    p.id as product_id,
+    p.sku,
+    p.product_name,
+    c.category_name,
+    s.supplier_name,
+    r.transaction_count,
+    r.units_sold,
+    r.revenue
+FROM (
+    SELECT 
+        sale_date,
+        product_id,
+        SUM(transaction_count)::BIGINT as transaction_count,
+        SUM(units_sold)::BIGINT as units_sold,
+        SUM(revenue)::DECIMAL(17,2) as revenue
+    FROM (
+        SELECT sale_date, product_id, transaction_count, units_sold, revenue FROM daily_sales_rollup
+        UNION ALL
+        SELECT sale_date, product_id, transaction_count, units_sold, revenue
+        FROM daily_sales_rollup_delta
+        WHERE product_id IS NOT NULL
+    ) u
+    GROUP BY sale_date, product_id
+) r
+JOIN product p ON r.product_id = p.id
+LEFT JOIN category c ON p.category_id = c.id
+LEFT JOIN supplier s ON p.supplier_id = s.id;
+
+-- Backfill the rollup from existing transactions (one-off, or use
+-- --sales.rollup.rebuild=true on the consumer):
+-- INSERT INTO daily_sales_rollup (sale_date, product_id, transaction_count, units_sold, revenue)
+-- SELECT th.transaction_date, td.product_id, COUNT(DISTINCT th.id), SUM(td.qty), SUM(td.total_price)
+-- FROM transaction_history th
+-- JOIN transaction_detail td ON td.transaction_id = th.id AND td.transaction_date = th.transaction_date
+-- GROUP BY th.transaction_date, td.product_id
+-- ON CONFLICT (sale_date, product_id) DO NOTHING;
+-- INSERT INTO daily_sales_total (sale_date, transaction_count)
+-- SELECT transaction_date, COUNT(*) FROM transaction_history GROUP BY transaction_date
+-- ON CONFLICT (sale_date) DO NOTHING;
 
 -- Product stock status
 CREATE OR REPLACE VIEW v_product_stock AS
@@ -201,8 +432,17 @@ SELECT 'Products', COUNT(*) FROM product;
 -- Uncomment below to drop all tables (WARNING: This will delete all data!)
 -- DROP VIEW IF EXISTS v_stock_movement;
 -- DROP VIEW IF EXISTS v_product_stock;
+-- DROP VIEW IF EXISTS v_daily_product_sales;
 -- DROP VIEW IF EXISTS v_daily_sales;
--- DROP TABLE IF EXISTS stock_log CASCADE;
+-- DROP TABLE IF EXISTS daily_sales_rollup_delta CASCADE;
+-- DROP TABLE IF EXISTS daily_sales_total CASCADE;
+-- DROP TABLE IF EXISTS daily_sales_rollup CASCADE;
+-- DROP TRIGGER IF EXISTS trg_product_changed ON product;
+-- DROP TRIGGER IF EXISTS trg_product_inserted ON product;
+-- DROP TRIGGER IF EXISTS trg_product_deleted ON product;
+-- DROP FUNCTION IF EXISTS notify_product_changed();
+-- DROP TABLE IF EXISTS processed_message CASCADE;
+-- DROP TABLE IF EXISTS stock_log CASCADE;  -- drops its partitions too
 -- DROP TABLE IF EXISTS transaction_detail CASCADE;
 -- DROP TABLE IF EXISTS transaction_history CASCADE;
 -- DROP TABLE IF EXISTS product CASCADE;
@@ -0,0 +1,70 @@
+package javadev.project.consumer.dto;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * TransactionDateDeserializer on both supported formats
+ * Cycles through 1 date (the date cache always hits) or 365 dates (more
+ * dates than cache slots, so most lookups miss)
+ *
+ * Run with: ./mvnw -Pjmh test-compile exec:exec -Djmh.args="TransactionDateDeserializerBenchmark"
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TransactionDateDeserializerBenchmark {
+
+    @Param({ "string", "array" })
+    private String format;
+
+    @Param({ "1", "365" })
+    private int distinctDates;
+
+    private final JsonFactory jsonFactory = new JsonFactory();
+    private final TransactionDateDeserializer deserializer = new TransactionDateDeserializer();
+    private byte[][] values;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        values = new byte[distinctDates][];
+        LocalDate date = LocalDate.of(2026, 1, 1);
+        for (int i = 0; i < distinctDates; i++) {
+            LocalDate day = date.plusDays(i);
+            String value = "string".equals(format)
+                    ? "\"" + day + "\""
+                    : "[" + day.getYear() + "," + day.getMonthValue() + "," + day.getDayOfMonth() + "]";
+            values[i] = value.getBytes(StandardCharsets.UTF_8);
+        }
+    }
+
+    @Benchmark
+    public LocalDate deserialize() throws IOException {
+        byte[] value = values[next];
+        next = next + 1 == values.length ? 0 : next + 1;
+        try (JsonParser parser = jsonFactory.createParser(value)) {
+            parser.nextToken();
+            return deserializer.deserialize(parser, null);
+        }
+    }
+}
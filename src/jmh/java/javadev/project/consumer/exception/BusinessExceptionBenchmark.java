@@ -0,0 +1,76 @@
+package javadev.project.consumer.exception;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BusinessException construction with addDetail, as thrown for rejected
+ * transactions
+ * The call depth adds frames below the constructor, since the stack trace
+ * is captured from the listener container, through Spring proxies, down to
+ * the validation code
+ * rejected() is the stackless RejectedTransactionException, whose cost
+ * should not depend on the call depth
+ *
+ * Run with: ./mvnw -Pjmh test-compile exec:exec -Djmh.args="BusinessExceptionBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BusinessExceptionBenchmark {
+
+    @Param({ "0", "100" })
+    private int callDepth;
+
+    private int productId = 42;
+
+    @Benchmark
+    public BusinessException withoutDetails() {
+        return atDepth(callDepth, false);
+    }
+
+    @Benchmark
+    public BusinessException withDetails() {
+        return atDepth(callDepth, true);
+    }
+
+    @Benchmark
+    public BusinessException rejected() {
+        return rejectedAtDepth(callDepth);
+    }
+
+    private BusinessException rejectedAtDepth(int depth) {
+        if (depth > 0) {
+            return rejectedAtDepth(depth - 1);
+        }
+        return new RejectedTransactionException(ErrorCode.INSUFFICIENT_STOCK, "Insufficient stock",
+                "productId", productId, "requestedQty", 5, "availableStock", 3);
+    }
+
+    private BusinessException atDepth(int depth, boolean details) {
+        if (depth > 0) {
+            return atDepth(depth - 1, details);
+        }
+        BusinessException e = new BusinessException(ErrorCode.INSUFFICIENT_STOCK,
+                "Insufficient stock for product ID: " + productId);
+        if (details) {
+            e.addDetail("productId", productId)
+                    .addDetail("requestedQty", 5)
+                    .addDetail("availableStock", 3);
+        }
+        return e;
+    }
+}
@@ -0,0 +1,79 @@
+package javadev.project.consumer.kafka;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import javadev.project.consumer.dto.TransactionRequestDTO;
+import javadev.project.consumer.service.ConsumerMetrics;
+import javadev.project.consumer.service.LogSampler;
+import javadev.project.consumer.service.ProductCatalogCache;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SalesTransactionConsumer.parseMessage on realistic payloads
+ * Payloads carry a message ID and 1, 10 or 100 items, with the transaction
+ * date in either supported format
+ *
+ * Run with: ./mvnw -Pjmh test-compile exec:exec -Djmh.args="ParseMessageBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParseMessageBenchmark {
+
+    @Param({ "1", "10", "100" })
+    private int items;
+
+    @Param({ "string", "array" })
+    private String dateFormat;
+
+    private SalesTransactionConsumer consumer;
+    private byte[] payload;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        ConsumerMetrics metrics = new ConsumerMetrics(
+                new PrometheusMeterRegistry(PrometheusConfig.DEFAULT), new ProductCatalogCache(10_000, 300));
+        // Only the deserializer and metrics are used by parseMessage
+        consumer = new SalesTransactionConsumer(null, null, null, null,
+                new TransactionRequestDeserializer(objectMapper), metrics, new LogSampler(0, 0, 0), null, null, null, null);
+        payload = payload(items, "string".equals(dateFormat) ? "\"2026-02-13\"" : "[2026,2,13]");
+    }
+
+    @Benchmark
+    public TransactionRequestDTO parseMessage() {
+        return consumer.parseMessage(payload);
+    }
+
+    static byte[] payload(int items, String date) {
+        StringBuilder sb = new StringBuilder("{\"message_id\":\"pos-07-000123456\",\"transaction_date\":")
+                .append(date)
+                .append(",\"items\":[");
+        for (int i = 0; i < items; i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append("{\"product_id\":").append(1 + (i * 37) % 5000)
+                    .append(",\"qty\":").append(1 + i % 5).append('}');
+        }
+        return sb.append("]}").toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,66 @@
+package javadev.project.consumer.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BigDecimal line totalling as done by TransactionService: unit price ×
+ * quantity per line (processTransactionItem) and the sum over all lines
+ * (calculateTotalPrice)
+ * Prices have scale 2 and range from stationery to laptops, like the sample
+ * catalog
+ *
+ * Run with: ./mvnw -Pjmh test-compile exec:exec -Djmh.args="LineTotalBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LineTotalBenchmark {
+
+    private static final BigDecimal[] CATALOG_PRICES = {
+            new BigDecimal("8500000.00"), new BigDecimal("150000.00"), new BigDecimal("750000.00"),
+            new BigDecimal("3500000.00"), new BigDecimal("25000.00"), new BigDecimal("45000.00"),
+            new BigDecimal("1200000.00"), new BigDecimal("2500000.00"), new BigDecimal("19999.99")
+    };
+
+    @Param({ "1", "10", "100" })
+    private int items;
+
+    private BigDecimal[] prices;
+    private int[] quantities;
+
+    @Setup
+    public void setUp() {
+        prices = new BigDecimal[items];
+        quantities = new int[items];
+        for (int i = 0; i < items; i++) {
+            prices[i] = CATALOG_PRICES[i % CATALOG_PRICES.length];
+            quantities[i] = 1 + i % 5;
+        }
+    }
+
+    @Benchmark
+    public BigDecimal lineTotals() {
+        BigDecimal totalPrice = BigDecimal.ZERO;
+        for (int i = 0; i < items; i++) {
+            BigDecimal lineTotal = prices[i].multiply(BigDecimal.valueOf(quantities[i]));
+            totalPrice = totalPrice.add(lineTotal);
+        }
+        return totalPrice;
+    }
+}
@@ -2,8 +2,17 @@ package javadev.project.consumer.configuration;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.MeterRegistry;
+import javadev.project.consumer.kafka.TransactionRequestDeserializer;
+import org.apache.kafka.clients.admin.AdminClientConfig;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
 import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -11,6 +20,13 @@ import org.springframework.kafka.annotation.EnableKafka;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.core.ConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaAdmin;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.MicrometerConsumerListener;
+import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.DefaultErrorHandler;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -33,6 +49,24 @@ public class AppConfig {
     @Value("${spring.kafka.consumer.auto-offset-reset}")
     private String autoOffsetReset;
 
+    @Value("${kafka.consumer.batch.max-poll-records:500}")
+    private int batchMaxPollRecords;
+
+    @Value("${kafka.consumer.batch.fetch-max-wait-ms:500}")
+    private int batchFetchMaxWaitMs;
+
+    @Value("${kafka.consumer.batch.fetch-min-bytes:65536}")
+    private int batchFetchMinBytes;
+
+    @Value("${kafka.consumer.concurrency:1}")
+    private int concurrency;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ObjectProvider<DefaultErrorHandler> salesTransactionErrorHandler;
+
     /**
      * Configure ObjectMapper bean for JSON processing
      * Registers JavaTimeModule to support Java 8 date/time types
@@ -46,22 +80,112 @@ public class AppConfig {
         return mapper;
     }
 
+    /**
+     * Configure deserializer from raw record bytes to TransactionRequestDTO
+     * Shares the application ObjectMapper configuration through a cached reader
+     *
+     * @param objectMapper Configured ObjectMapper
+     * @return TransactionRequestDeserializer instance
+     */
+    @Bean
+    public TransactionRequestDeserializer transactionRequestDeserializer(ObjectMapper objectMapper) {
+        return new TransactionRequestDeserializer(objectMapper);
+    }
+
     /**
      * Configure Kafka consumer factory with connection settings
      * Sets up bootstrap servers, group ID, deserializers, and consumer properties
+     * Values are consumed as raw bytes and parsed without an intermediate String
+     * Kafka client metrics, including per-partition records lag, are bound to
+     * the meter registry
+     *
+     * @return ConsumerFactory configured for String key and byte array value
+     */
+    @Bean
+    public ConsumerFactory<String, byte[]> consumerFactory() {
+        DefaultKafkaConsumerFactory<String, byte[]> factory = new DefaultKafkaConsumerFactory<>(baseConsumerProperties());
+        factory.addListener(new MicrometerConsumerListener<>(meterRegistry));
+        return factory;
+    }
+
+    /**
+     * Configure Kafka consumer factory for batch listener mode
+     * Uses the same connection settings as the default consumer factory, plus
+     * poll sizing so one poll maps to one database transaction
+     * The broker holds a fetch until fetch.min.bytes are available or
+     * fetch.max.wait.ms has passed, so under moderate load polls fill up
+     * instead of returning the first few records
+     *
+     * @return ConsumerFactory configured for batch polling
+     */
+    @Bean
+    public ConsumerFactory<String, byte[]> batchConsumerFactory() {
+        Map<String, Object> props = baseConsumerProperties();
+        props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, batchMaxPollRecords);
+        props.put(ConsumerConfig.FETCH_MAX_WAIT_MS_CONFIG, batchFetchMaxWaitMs);
+        props.put(ConsumerConfig.FETCH_MIN_BYTES_CONFIG, batchFetchMinBytes);
+        DefaultKafkaConsumerFactory<String, byte[]> factory = new DefaultKafkaConsumerFactory<>(props);
+        factory.addListener(new MicrometerConsumerListener<>(meterRegistry));
+        return factory;
+    }
+
+    /**
+     * Configure Kafka admin client
+     * Creates the retry and dead-letter topics on startup if they do not exist
+     *
+     * @return KafkaAdmin configured with the bootstrap servers
+     */
+    @Bean
+    public KafkaAdmin kafkaAdmin() {
+        Map<String, Object> props = new HashMap<>();
+        props.put(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        return new KafkaAdmin(props);
+    }
+
+    /**
+     * Configure Kafka producer factory
+     * Used to publish failed messages to the retry and dead-letter topics
+     *
+     * @return ProducerFactory configured for String key and byte array value
+     */
+    @Bean
+    public ProducerFactory<String, byte[]> producerFactory() {
+        Map<String, Object> props = new HashMap<>();
+        props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class);
+        props.put(ProducerConfig.ACKS_CONFIG, "all");
+        props.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        return new DefaultKafkaProducerFactory<>(props);
+    }
+
+    /**
+     * Configure Kafka template for publishing messages
      *
-     * @return ConsumerFactory configured for String key and value
+     * @return KafkaTemplate backed by the producer factory
      */
     @Bean
-    public ConsumerFactory<String, String> consumerFactory() {
+    public KafkaTemplate<String, byte[]> kafkaTemplate() {
+        return new KafkaTemplate<>(producerFactory());
+    }
+
+    /**
+     * Build consumer properties shared by all consumer factories
+     * Auto commit is disabled: offsets are committed by the listener container
+     * only after records are processed, and redeliveries are filtered by the
+     * idempotency layer
+     *
+     * @return Mutable map of consumer properties
+     */
+    private Map<String, Object> baseConsumerProperties() {
         Map<String, Object> props = new HashMap<>();
         props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         props.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
         props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
-        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ByteArrayDeserializer.class);
         props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, autoOffsetReset);
-        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, true);
-        return new DefaultKafkaConsumerFactory<>(props);
+        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        return props;
     }
 
     /**
@@ -73,9 +197,65 @@ public class AppConfig {
      *         processing
      */
     @Bean
-    public ConcurrentKafkaListenerContainerFactory<String, String> kafkaListenerContainerFactory() {
-        ConcurrentKafkaListenerContainerFactory<String, String> factory = new ConcurrentKafkaListenerContainerFactory<>();
+    public ConcurrentKafkaListenerContainerFactory<String, byte[]> kafkaListenerContainerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, byte[]> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory());
+        factory.setConcurrency(concurrency);
+        return factory;
+    }
+
+    /**
+     * Configure Kafka listener container factory for batch listener mode
+     * Delivers the whole poll result to the listener as a list of records
+     * max.poll.records is the upper bound for BatchBackpressureController,
+     * which pauses and resumes this container on database saturation
+     * The listener publishes failed records itself; the sales transaction
+     * error handler retries or dead-letters the record at the index of a
+     * BatchListenerFailedException, thrown when that publish fails
+     *
+     * @return ConcurrentKafkaListenerContainerFactory with batch listening enabled
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, byte[]> batchKafkaListenerContainerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, byte[]> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(batchConsumerFactory());
+        factory.setBatchListener(true);
+        salesTransactionErrorHandler.ifAvailable(factory::setCommonErrorHandler);
+        return factory;
+    }
+
+    /**
+     * Configure Kafka listener container factory for the listener retry topic
+     * Retries failed records in place with the sales transaction error handler,
+     * then dead-letters them
+     *
+     * @return ConcurrentKafkaListenerContainerFactory with blocking retries
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, byte[]> retryKafkaListenerContainerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, byte[]> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory());
+        salesTransactionErrorHandler.ifAvailable(factory::setCommonErrorHandler);
+        return factory;
+    }
+
+    /**
+     * Configure Kafka listener container factory for parallel listener mode
+     * Records are handed off to worker threads and acknowledged out of order
+     * when the future returned by the listener completes; the container
+     * commits offsets only up to the lowest unfinished record. Records whose
+     * future completes exceptionally go to the sales transaction error handler
+     *
+     * @return ConcurrentKafkaListenerContainerFactory with manual async acks
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, byte[]> parallelKafkaListenerContainerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, byte[]> factory = new ConcurrentKafkaListenerContainerFactory<>();
         factory.setConsumerFactory(consumerFactory());
+        factory.setConcurrency(concurrency);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        factory.getContainerProperties().setAsyncAcks(true);
+        salesTransactionErrorHandler.ifAvailable(factory::setCommonErrorHandler);
         return factory;
     }
 }
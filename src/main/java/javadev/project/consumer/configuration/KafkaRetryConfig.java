@@ -0,0 +1,164 @@
+package javadev.project.consumer.configuration;
+
+import javadev.project.consumer.exception.BusinessException;
+import javadev.project.consumer.exception.RetryableBusinessException;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.kafka.retrytopic.DeadLetterPublishingRecovererFactory;
+import org.springframework.kafka.retrytopic.RetryTopicConfiguration;
+import org.springframework.kafka.retrytopic.RetryTopicConfigurationBuilder;
+import org.springframework.kafka.retrytopic.RetryTopicConfigurationSupport;
+import org.springframework.kafka.support.ExponentialBackOffWithMaxRetries;
+
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+
+/**
+ * Non-blocking retry configuration for the sales transaction topic
+ * Failed records are republished to delayed retry topics with exponential
+ * backoff instead of blocking the partition:
+ * - RetryableBusinessException (DATABASE_ERROR, TRANSACTION_PROCESSING_ERROR)
+ *   goes through the retry topics, then to the dead-letter topic
+ * - any other exception goes straight to the dead-letter topic
+ * Dead-letter records carry the business error code and message as headers
+ *
+ * Retry topics generated by RetryTopicConfiguration apply to the record
+ * listener only. In batch and parallel listener modes the listener publishes
+ * failures itself, so the main topic is never held up:
+ * - retryable failures go to the listener retry topic, which has its own
+ *   record listener with blocking retries, then the dead-letter topic
+ * - permanent failures go straight to the dead-letter topic
+ * A failure that cannot be published after kafka.retry.publish-attempts is
+ * handed to salesTransactionErrorHandler instead: the batch listener throws
+ * BatchListenerFailedException with the index of the record, the parallel
+ * listener completes the record's future exceptionally
+ */
+@Configuration
+public class KafkaRetryConfig extends RetryTopicConfigurationSupport {
+
+    public static final String ERROR_CODE_HEADER = "x-error-code";
+    public static final String ERROR_MESSAGE_HEADER = "x-error-message";
+    public static final String DEAD_LETTER_SUFFIX = "-dlt";
+    public static final String LISTENER_RETRY_SUFFIX = "-listener-retry";
+
+    @Value("${kafka.topic.sales-transaction}")
+    private String salesTransactionTopic;
+
+    @Value("${kafka.retry.max-attempts:4}")
+    private int maxAttempts;
+
+    @Value("${kafka.retry.initial-interval-ms:1000}")
+    private long initialIntervalMs;
+
+    @Value("${kafka.retry.multiplier:2.0}")
+    private double multiplier;
+
+    @Value("${kafka.retry.max-interval-ms:30000}")
+    private long maxIntervalMs;
+
+    /**
+     * Configure retry and dead-letter topics for the sales transaction topic
+     *
+     * @param kafkaTemplate Template used to publish to retry and DLT topics
+     * @return RetryTopicConfiguration for the sales transaction listener
+     */
+    @Bean
+    @ConditionalOnExpression("!${kafka.consumer.batch.enabled:false} && !${kafka.consumer.parallel.enabled:false}")
+    public RetryTopicConfiguration salesTransactionRetryTopic(KafkaTemplate<String, byte[]> kafkaTemplate) {
+        return RetryTopicConfigurationBuilder.newInstance()
+                .includeTopic(salesTransactionTopic)
+                .maxAttempts(maxAttempts)
+                .exponentialBackoff(initialIntervalMs, multiplier, maxIntervalMs)
+                .retryOn(RetryableBusinessException.class)
+                .traversingCauses()
+                .listenerFactory("kafkaListenerContainerFactory")
+                .create(kafkaTemplate);
+    }
+
+    /**
+     * Dead-letter publisher for batch and parallel listener modes
+     * Every record goes to the sales transaction dead-letter topic, including
+     * records read from the listener retry topic
+     *
+     * @param kafkaTemplate Template used to publish to the DLT
+     * @return DeadLetterPublishingRecoverer with business error code headers
+     */
+    @Bean
+    @ConditionalOnExpression("${kafka.consumer.batch.enabled:false} || ${kafka.consumer.parallel.enabled:false}")
+    public DeadLetterPublishingRecoverer salesTransactionDeadLetterRecoverer(KafkaTemplate<String, byte[]> kafkaTemplate) {
+        DeadLetterPublishingRecoverer recoverer = new DeadLetterPublishingRecoverer(kafkaTemplate,
+                (record, exception) -> new TopicPartition(salesTransactionTopic + DEAD_LETTER_SUFFIX, -1));
+        recoverer.setHeadersFunction((record, exception) -> errorHeaders(exception));
+        return recoverer;
+    }
+
+    /**
+     * Blocking retry error handler for batch and parallel listener modes
+     * Handles records of the listener retry topic, and records whose failure
+     * the batch or parallel listener could not publish
+     * Only RetryableBusinessException, anywhere in the cause chain, is
+     * retried; everything else is dead-lettered on the first failure
+     *
+     * @param salesTransactionDeadLetterRecoverer Recoverer for exhausted or
+     *                                            permanent failures
+     * @return DefaultErrorHandler with exponential backoff
+     */
+    @Bean
+    @ConditionalOnExpression("${kafka.consumer.batch.enabled:false} || ${kafka.consumer.parallel.enabled:false}")
+    public DefaultErrorHandler salesTransactionErrorHandler(
+            DeadLetterPublishingRecoverer salesTransactionDeadLetterRecoverer) {
+        ExponentialBackOffWithMaxRetries backOff = new ExponentialBackOffWithMaxRetries(Math.max(0, maxAttempts - 1));
+        backOff.setInitialInterval(initialIntervalMs);
+        backOff.setMultiplier(multiplier);
+        backOff.setMaxInterval(maxIntervalMs);
+        DefaultErrorHandler errorHandler = new DefaultErrorHandler(salesTransactionDeadLetterRecoverer, backOff);
+        errorHandler.defaultFalse();
+        errorHandler.addRetryableExceptions(RetryableBusinessException.class);
+        return errorHandler;
+    }
+
+    @Bean
+    @ConditionalOnExpression("${kafka.consumer.batch.enabled:false} || ${kafka.consumer.parallel.enabled:false}")
+    public NewTopic salesTransactionDeadLetterTopic() {
+        return TopicBuilder.name(salesTransactionTopic + DEAD_LETTER_SUFFIX).build();
+    }
+
+    @Bean
+    @ConditionalOnExpression("${kafka.consumer.batch.enabled:false} || ${kafka.consumer.parallel.enabled:false}")
+    public NewTopic salesTransactionListenerRetryTopic() {
+        return TopicBuilder.name(salesTransactionTopic + LISTENER_RETRY_SUFFIX).build();
+    }
+
+    /**
+     * Add business error code headers to dead-letter records
+     */
+    @Override
+    protected Consumer<DeadLetterPublishingRecovererFactory> configureDeadLetterPublishingContainerFactory() {
+        return factory -> factory.setDeadLetterPublishingRecovererCustomizer(
+                recoverer -> recoverer.setHeadersFunction((record, exception) -> errorHeaders(exception)));
+    }
+
+    private static Headers errorHeaders(Exception exception) {
+        Headers headers = new RecordHeaders();
+        for (Throwable t = exception; t != null; t = t.getCause()) {
+            if (t instanceof BusinessException businessException) {
+                headers.add(ERROR_CODE_HEADER,
+                        businessException.getErrorCode().getCode().getBytes(StandardCharsets.UTF_8));
+                headers.add(ERROR_MESSAGE_HEADER,
+                        String.valueOf(businessException.getMessage()).getBytes(StandardCharsets.UTF_8));
+                break;
+            }
+        }
+        return headers;
+    }
+}
@@ -0,0 +1,38 @@
+package javadev.project.consumer.configuration;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.JvmGcMetrics;
+import io.micrometer.core.instrument.binder.jvm.JvmMemoryMetrics;
+import io.micrometer.core.instrument.binder.jvm.JvmThreadMetrics;
+import io.micrometer.core.instrument.binder.system.ProcessorMetrics;
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Metrics configuration class
+ * Provides the Prometheus meter registry used by the consumer instrumentation
+ * and binds basic JVM metrics to it. The application runs without a web
+ * server, so the registry is served by MetricsHttpServer.
+ */
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * Configure Prometheus meter registry
+     *
+     * @return PrometheusMeterRegistry with JVM metrics bound
+     */
+    @Bean
+    @ConditionalOnMissingBean(MeterRegistry.class)
+    public PrometheusMeterRegistry prometheusMeterRegistry() {
+        PrometheusMeterRegistry registry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+        new JvmMemoryMetrics().bindTo(registry);
+        new JvmGcMetrics().bindTo(registry);
+        new JvmThreadMetrics().bindTo(registry);
+        new ProcessorMetrics().bindTo(registry);
+        return registry;
+    }
+}
@@ -0,0 +1,86 @@
+package javadev.project.consumer.configuration;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Minimal HTTP server exposing the Prometheus scrape endpoint
+ * The application runs with spring.main.web-application-type=none, so the
+ * metrics are served by the JDK HTTP server on their own port instead of a
+ * servlet container
+ *
+ * Scrape with: curl http://localhost:9404/metrics
+ */
+@Component
+@ConditionalOnProperty(name = "metrics.endpoint.enabled", havingValue = "true")
+@Slf4j
+public class MetricsHttpServer implements DisposableBean {
+
+    private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private final PrometheusMeterRegistry registry;
+    private final int port;
+    private final String path;
+    private final ExecutorService executor;
+    private HttpServer server;
+
+    public MetricsHttpServer(
+            PrometheusMeterRegistry registry,
+            @Value("${metrics.endpoint.port:9404}") int port,
+            @Value("${metrics.endpoint.path:/metrics}") String path) {
+        this.registry = registry;
+        this.port = port;
+        this.path = path;
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "metrics-http");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(port), 0);
+        server.createContext(path, this::scrape);
+        server.setExecutor(executor);
+        server.start();
+        log.info("✓ Metrics endpoint listening on port {} at {}", port, path);
+    }
+
+    @Override
+    public void destroy() {
+        if (server != null) {
+            server.stop(0);
+        }
+        executor.shutdownNow();
+    }
+
+    private void scrape(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            byte[] body = registry.scrape().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+    }
+}
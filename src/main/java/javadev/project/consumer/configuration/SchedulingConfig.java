@@ -0,0 +1,44 @@
+package javadev.project.consumer.configuration;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+/**
+ * Scheduling configuration class
+ * Provides the single task scheduler that runs every @Scheduled background
+ * job: stock ledger and sales rollup flushes, backpressure resume checks,
+ * partition maintenance and processed message cleanup. A failed run is
+ * logged and the job runs again at its next interval.
+ */
+@Configuration
+@EnableScheduling
+@Slf4j
+public class SchedulingConfig {
+
+    @Value("${scheduling.pool-size:2}")
+    private int poolSize;
+
+    @Value("${scheduling.shutdown-timeout-seconds:10}")
+    private int shutdownTimeoutSeconds;
+
+    /**
+     * Configure the task scheduler for @Scheduled jobs
+     *
+     * @return ThreadPoolTaskScheduler with daemon threads
+     */
+    @Bean
+    public ThreadPoolTaskScheduler taskScheduler() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(poolSize);
+        scheduler.setThreadNamePrefix("background-job-");
+        scheduler.setDaemon(true);
+        scheduler.setWaitForTasksToCompleteOnShutdown(true);
+        scheduler.setAwaitTerminationSeconds(shutdownTimeoutSeconds);
+        scheduler.setErrorHandler(e -> log.error("✗ Background job failed: {}", e.getMessage(), e));
+        return scheduler;
+    }
+}
@@ -0,0 +1,51 @@
+package javadev.project.consumer.dto;
+
+import javadev.project.consumer.entity.transactionHistory;
+import javadev.project.consumer.exception.BusinessException;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * DTO for the outcome of a batch of transactions processed in one database
+ * transaction
+ * Holds the persisted transactions, the rejected requests keyed by their
+ * position in the batch, and timing used for throughput reporting
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class BatchResultDTO {
+
+    @Builder.Default
+    private List<transactionHistory> processed = new ArrayList<>();
+
+    @Builder.Default
+    private Map<Integer, BusinessException> failures = new LinkedHashMap<>();
+
+    private long elapsedNanos;
+
+    /**
+     * Total number of requests in the batch
+     */
+    public int size() {
+        return processed.size() + failures.size();
+    }
+
+    /**
+     * Throughput of the batch in messages per second
+     */
+    public double throughputPerSecond() {
+        if (elapsedNanos <= 0) {
+            return 0;
+        }
+        return size() * 1_000_000_000d / elapsedNanos;
+    }
+}
@@ -0,0 +1,19 @@
+package javadev.project.consumer.dto;
+
+import lombok.Value;
+
+import java.math.BigDecimal;
+
+/**
+ * Immutable snapshot of the catalog fields of a product
+ * Cached by ProductCatalogCache; deliberately carries no stock so a cached
+ * value can never drive a stock decision
+ */
+@Value
+public class ProductCatalogEntry {
+
+    Integer id;
+    String sku;
+    String productName;
+    BigDecimal price;
+}
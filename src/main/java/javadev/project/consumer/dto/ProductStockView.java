@@ -0,0 +1,11 @@
+package javadev.project.consumer.dto;
+
+/**
+ * Projection of a product's current stock, always read from the database
+ */
+public interface ProductStockView {
+
+    Integer getId();
+
+    Integer getCurrentStock();
+}
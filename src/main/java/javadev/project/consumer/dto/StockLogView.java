@@ -0,0 +1,21 @@
+package javadev.project.consumer.dto;
+
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read-only projection of a stock log row for range scans
+ * Built directly by the query, so it is never attached to the persistence
+ * context
+ */
+@Value
+public class StockLogView {
+
+    Integer id;
+    Integer productId;
+    Integer quantityChange;
+    String logType;
+    Integer movementCount;
+    LocalDateTime createdAt;
+}
@@ -0,0 +1,59 @@
+package javadev.project.consumer.dto;
+
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * DTO for the outcome of a stock reconciliation run
+ * Lists every product whose current stock differs from the sum of its
+ * applied stock log movements
+ * Drifted products without an opening balance in the log are never
+ * corrected
+ */
+@Value
+public class StockReconciliationReport {
+
+    long productsChecked;
+    long logRowsScanned;
+    List<Drift> drifts;
+    int corrected;
+    long elapsedNanos;
+
+    /**
+     * Stock log rows aggregated per second
+     */
+    public double rowsPerSecond() {
+        if (elapsedNanos <= 0) {
+            return 0;
+        }
+        return logRowsScanned * 1_000_000_000d / elapsedNanos;
+    }
+
+    /**
+     * Drifted products whose log has no opening balance
+     */
+    public long driftsWithoutBaseline() {
+        return drifts.stream().filter(drift -> !drift.isBaseline()).count();
+    }
+
+    /**
+     * One product whose stock does not match its log
+     */
+    @Value
+    public static class Drift {
+
+        Integer productId;
+        int currentStock;
+        long loggedStock;
+        // Log has an INITIAL or CARRY_FORWARD row, so it can explain the stock
+        boolean baseline;
+
+        /**
+         * Stock the product has beyond what the log explains
+         */
+        public long getDrift() {
+            return currentStock - loggedStock;
+        }
+    }
+}
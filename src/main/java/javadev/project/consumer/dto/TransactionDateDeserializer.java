@@ -1,11 +1,14 @@
 package javadev.project.consumer.dto;
 
 import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.DeserializationContext;
 import com.fasterxml.jackson.databind.JsonDeserializer;
-import com.fasterxml.jackson.databind.JsonNode;
+import javadev.project.consumer.exception.ErrorCode;
+import javadev.project.consumer.exception.RejectedTransactionException;
 
 import java.io.IOException;
+import java.time.DateTimeException;
 import java.time.LocalDate;
 
 /**
@@ -19,56 +22,115 @@ import java.time.LocalDate;
  * - Month: 1-12
  * - Day: 1-31
  * 
- * Converts both formats to standard yyyy-MM-dd string format
- * Throws IOException if date format is invalid or unrecognized
+ * Reads tokens directly from the parser into a LocalDate, without building a
+ * JSON tree or an intermediate String. Recently seen dates are cached, since
+ * most messages in a stream share the same few dates.
+ * Throws RejectedTransactionException (TXN002) if the date is invalid, and
+ * IOException if the format is unrecognized
  */
-public class TransactionDateDeserializer extends JsonDeserializer<String> {
+public class TransactionDateDeserializer extends JsonDeserializer<LocalDate> {
+
+    private static final int CACHE_SIZE = 64;
+
+    // Direct-mapped cache of recent dates; races only cause a cache miss
+    private static final LocalDate[] CACHE = new LocalDate[CACHE_SIZE];
 
     /**
-     * Deserialize JSON date value to yyyy-MM-dd string format
+     * Deserialize JSON date value to LocalDate
      * 
      * @param p    JsonParser providing access to JSON content
      * @param ctxt Deserialization context
-     * @return Date string in yyyy-MM-dd format
-     * @throws IOException if date format is invalid or values are out of valid
-     *                     range
+     * @return Transaction date
+     * @throws IOException if date format is unrecognized
      */
     @Override
-    public String deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
-        JsonNode node = p.getCodec().readTree(p);
+    public LocalDate deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+        JsonToken token = p.currentToken();
 
-        if (node.isArray()) {
+        if (token == JsonToken.START_ARRAY) {
             // Handle array format [year, month, day]
-            if (node.size() != 3) {
+            int year = nextInt(p);
+            int month = nextInt(p);
+            int day = nextInt(p);
+            if (p.nextToken() != JsonToken.END_ARRAY) {
                 throw new IOException("Invalid date array format. Expected [year, month, day]");
             }
+            return toDate(year, month, day);
 
-            int year = node.get(0).asInt();
-            int month = node.get(1).asInt();
-            int day = node.get(2).asInt();
-
-            // Validate date values
-            if (year < 1900 || year > 2100) {
-                throw new IOException("Invalid year: " + year);
+        } else if (token == JsonToken.VALUE_STRING) {
+            // Handle string format "2026-02-13"
+            char[] chars = p.getTextCharacters();
+            int offset = p.getTextOffset();
+            int length = p.getTextLength();
+            if (length != 10 || chars[offset + 4] != '-' || chars[offset + 7] != '-') {
+                throw invalidDate(p.getText());
             }
-            if (month < 1 || month > 12) {
-                throw new IOException("Invalid month: " + month);
+            int year = digits(chars, offset, 4);
+            int month = digits(chars, offset + 5, 2);
+            int day = digits(chars, offset + 8, 2);
+            if (year < 0 || month < 0 || day < 0) {
+                throw invalidDate(p.getText());
             }
-            if (day < 1 || day > 31) {
-                throw new IOException("Invalid day: " + day);
+            return toDate(year, month, day);
+
+        } else {
+            throw new IOException("Invalid date format. Expected array [year, month, day] or string 'yyyy-MM-dd'");
+        }
+    }
+
+    private static int nextInt(JsonParser p) throws IOException {
+        if (p.nextToken() != JsonToken.VALUE_NUMBER_INT) {
+            throw new IOException("Invalid date array format. Expected [year, month, day]");
+        }
+        return p.getIntValue();
+    }
+
+    /**
+     * Parse fixed-width decimal digits, or return -1 if any char is not a digit
+     */
+    private static int digits(char[] chars, int offset, int count) {
+        int value = 0;
+        for (int i = offset; i < offset + count; i++) {
+            int digit = chars[i] - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
             }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
 
-            // Convert to LocalDate first to validate the date
-            LocalDate date = LocalDate.of(year, month, day);
+    /**
+     * Validate date components and return the cached or new LocalDate
+     */
+    private static LocalDate toDate(int year, int month, int day) {
+        // Validate date values
+        if (year < 1900 || year > 2100 || month < 1 || month > 12 || day < 1 || day > 31) {
+            throw invalidDate(String.format("%d-%02d-%02d", year, month, day));
+        }
 
-            // Return as string in yyyy-MM-dd format
-            return date.toString();
+        int key = year * 10_000 + month * 100 + day;
+        int slot = (key ^ (key >>> 7)) & (CACHE_SIZE - 1);
+        LocalDate cached = CACHE[slot];
+        if (cached != null && cached.getYear() == year && cached.getMonthValue() == month
+                && cached.getDayOfMonth() == day) {
+            return cached;
+        }
 
-        } else if (node.isTextual()) {
-            // Handle string format "2026-02-13"
-            return node.asText();
-        } else {
-            throw new IOException("Invalid date format. Expected array [year, month, day] or string 'yyyy-MM-dd'");
+        try {
+            LocalDate date = LocalDate.of(year, month, day);
+            CACHE[slot] = date;
+            return date;
+        } catch (DateTimeException e) {
+            throw invalidDate(String.format("%d-%02d-%02d", year, month, day));
         }
     }
+
+    private static RejectedTransactionException invalidDate(String providedDate) {
+        return new RejectedTransactionException(
+                ErrorCode.INVALID_TRANSACTION_DATE,
+                "Invalid date",
+                "providedDate", providedDate,
+                "expectedFormat", "yyyy-MM-dd");
+    }
 }
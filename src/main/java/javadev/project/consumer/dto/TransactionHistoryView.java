@@ -0,0 +1,21 @@
+package javadev.project.consumer.dto;
+
+import lombok.Value;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Read-only projection of a transaction history row for range scans
+ * Built directly by the query, so it is never attached to the persistence
+ * context
+ */
+@Value
+public class TransactionHistoryView {
+
+    Integer id;
+    LocalDate transactionDate;
+    BigDecimal totalPrice;
+    LocalDateTime createdAt;
+}
@@ -1,5 +1,6 @@
 package javadev.project.consumer.dto;
 
+import com.fasterxml.jackson.annotation.JsonAlias;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import lombok.AllArgsConstructor;
@@ -10,12 +11,14 @@ import lombok.NoArgsConstructor;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
+import java.time.LocalDate;
 import java.util.List;
 
 /**
  * DTO for incoming transaction request from Kafka
  * Contains transaction date and list of items to be sold
  * Supports flexible date format via custom deserializer
+ * Carries an optional message ID used for idempotent consumption
  */
 @Data
 @AllArgsConstructor
@@ -23,10 +26,15 @@ import java.util.List;
 @Builder
 public class TransactionRequestDTO {
 
+    // Optional producer-assigned ID; resolved from header or offset if absent
+    @JsonProperty("message_id")
+    @JsonAlias({ "messageId", "message_id" })
+    private String messageId;
+
     @NotNull(message = "Transaction date cannot be null")
     @JsonProperty("transaction_date")
     @JsonDeserialize(using = TransactionDateDeserializer.class)
-    private String transactionDate;
+    private LocalDate transactionDate;
 
     @NotNull(message = "Items cannot be null")
     @NotEmpty(message = "Items cannot be empty")
@@ -0,0 +1,44 @@
+package javadev.project.consumer.dto;
+
+import javadev.project.consumer.exception.RejectedTransactionException;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * DTO for the outcome of validating a transaction request before its
+ * database transaction
+ * Either valid, or rejected with a stackless exception describing the first
+ * problem found
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class ValidationResultDTO {
+
+    private static final ValidationResultDTO VALID = new ValidationResultDTO(null);
+
+    private final RejectedTransactionException rejection;
+
+    public static ValidationResultDTO valid() {
+        return VALID;
+    }
+
+    public static ValidationResultDTO rejected(RejectedTransactionException rejection) {
+        return new ValidationResultDTO(rejection);
+    }
+
+    public boolean isValid() {
+        return rejection == null;
+    }
+
+    /**
+     * Throw the rejection, if any
+     *
+     * @throws RejectedTransactionException if the request was rejected
+     */
+    public void throwIfRejected() {
+        if (rejection != null) {
+            throw rejection;
+        }
+    }
+}
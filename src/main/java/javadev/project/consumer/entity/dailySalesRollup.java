@@ -0,0 +1,55 @@
+package javadev.project.consumer.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Entity class representing pre-aggregated sales for one product on one day
+ * Maps to the 'daily_sales_rollup' table in the database
+ * Maintained by SalesRollupService: each sale appends deltas to
+ * daily_sales_rollup_delta in its own transaction, and a periodic flush folds
+ * them into this table, so a row lags sales by up to
+ * sales.rollup.flush-interval-ms. The reporting views add the unflushed
+ * deltas; category and supplier come from the product
+ * 
+ * Lombok annotations provide getters, setters, constructors, and builder
+ * pattern
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Entity
+@Table(name = "daily_sales_rollup")
+public class dailySalesRollup {
+
+    @EmbeddedId
+    private dailySalesRollupId id;
+
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    @ManyToOne(fetch = FetchType.LAZY)
+    @MapsId("productId")
+    @JoinColumn(name = "product_id")
+    private product product;
+
+    @Column(name = "transaction_count", nullable = false)
+    private Long transactionCount;
+
+    @Column(name = "units_sold", nullable = false)
+    private Long unitsSold;
+
+    @Column(name = "revenue", precision = 17, scale = 2, nullable = false)
+    private BigDecimal revenue;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
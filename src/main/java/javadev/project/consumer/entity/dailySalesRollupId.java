@@ -0,0 +1,26 @@
+package javadev.project.consumer.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * Composite key of the daily sales rollup: one row per day and product
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Embeddable
+public class dailySalesRollupId implements Serializable {
+
+    @Column(name = "sale_date")
+    private LocalDate saleDate;
+
+    @Column(name = "product_id")
+    private Integer productId;
+}
@@ -0,0 +1,53 @@
+package javadev.project.consumer.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.CreationTimestamp;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entity class representing a Kafka message that has already been processed
+ * Maps to the 'processed_message' table in the database
+ * The unique index on message_id makes consumption idempotent: the row is
+ * written in the same database transaction as the transaction history, so a
+ * redelivered message can never be applied twice
+ * 
+ * Uses Hibernate annotation for automatic timestamp generation (processed_at)
+ * Lombok annotations provide getters, setters, constructors, and builder
+ * pattern
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Entity
+@Table(name = "processed_message", indexes = {
+        @Index(name = "idx_processed_message_id", columnList = "message_id", unique = true),
+        @Index(name = "idx_processed_message_processed_at", columnList = "processed_at") })
+public class processedMessage {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "processed_message_seq")
+    @SequenceGenerator(name = "processed_message_seq", sequenceName = "processed_message_id_seq", allocationSize = 50)
+    private Integer id;
+
+    @Column(name = "message_id", length = 200, nullable = false)
+    private String messageId;
+
+    // No constraint: partitioned transaction_history is unique on (id, transaction_date)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "transaction_id", foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
+    private transactionHistory transactionHistory;
+
+    @CreationTimestamp
+    @Column(name = "processed_at", updatable = false)
+    private LocalDateTime processedAt;
+}
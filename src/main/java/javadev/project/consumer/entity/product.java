@@ -6,7 +6,9 @@ import org.hibernate.annotations.UpdateTimestamp;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -22,6 +24,10 @@ import java.util.List;
  * updated_at)
  * Lombok annotations provide getters, setters, constructors, and builder
  * pattern
+ * 
+ * All associations are lazy and left out of toString/equals/hashCode, so
+ * findById reads one table and logging a product never loads anything; the
+ * transaction hot path reads products through projections instead
  */
 @Data
 @AllArgsConstructor
@@ -32,7 +38,8 @@ import java.util.List;
 public class product {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "product_seq")
+    @SequenceGenerator(name = "product_seq", sequenceName = "product_id_seq", allocationSize = 50)
     private Integer id;
 
     @Column(name = "sku", length = 50)
@@ -41,15 +48,20 @@ public class product {
     @Column(name = "product_name", length = 100)
     private String productName;
 
-    @ManyToOne
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "category_id")
     private category category;
 
-    @ManyToOne
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "supplier_id")
     private supplier supplier;
 
-    @Column(name = "current_stock")
+    // Written only through ProductRepository.decrementStock, never by entity flush
+    @Column(name = "current_stock", updatable = false)
     private Integer currentStock;
 
     @Column(name = "price", precision = 15, scale = 2)
@@ -63,9 +75,13 @@ public class product {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     @OneToMany(mappedBy = "product")
     private List<transactionDetail> transactionDetails;
 
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     @OneToMany(mappedBy = "product")
     private List<stockLog> stockLogs;
 }
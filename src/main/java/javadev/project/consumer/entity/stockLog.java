@@ -5,7 +5,9 @@ import org.hibernate.annotations.CreationTimestamp;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 import java.time.LocalDateTime;
 
@@ -29,10 +31,13 @@ import java.time.LocalDateTime;
 public class stockLog {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "stock_log_seq")
+    @SequenceGenerator(name = "stock_log_seq", sequenceName = "stock_log_id_seq", allocationSize = 50)
     private Integer id;
 
-    @ManyToOne
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "product_id")
     private product product;
 
@@ -42,6 +47,16 @@ public class stockLog {
     @Column(name = "log_type", length = 20)
     private String logType;
 
+    // Number of SALE movements merged into this row when stock logs are coalesced
+    @Builder.Default
+    @Column(name = "movement_count")
+    private Integer movementCount = 1;
+
+    // Not yet applied to product.current_stock by StockLedger
+    @Builder.Default
+    @Column(name = "ledger_pending")
+    private Boolean ledgerPending = Boolean.FALSE;
+
     @CreationTimestamp
     @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt;
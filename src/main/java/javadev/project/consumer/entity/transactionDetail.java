@@ -5,9 +5,12 @@ import org.hibernate.annotations.CreationTimestamp;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 /**
@@ -32,14 +35,24 @@ import java.time.LocalDateTime;
 public class transactionDetail {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transaction_detail_seq")
+    @SequenceGenerator(name = "transaction_detail_seq", sequenceName = "transaction_detail_id_seq", allocationSize = 50)
     private Integer id;
 
-    @ManyToOne
-    @JoinColumn(name = "transaction_id")
+    // Constraint is (transaction_id, transaction_date) in database-setup.sql
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "transaction_id", foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
     private transactionHistory transactionHistory;
 
-    @ManyToOne
+    // Copy of the transaction date; partition key and part of the foreign key
+    @Column(name = "transaction_date")
+    private LocalDate transactionDate;
+
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "product_id")
     private product product;
 
@@ -5,7 +5,9 @@ import org.hibernate.annotations.CreationTimestamp;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -32,7 +34,8 @@ import java.util.List;
 public class transactionHistory {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transaction_history_seq")
+    @SequenceGenerator(name = "transaction_history_seq", sequenceName = "transaction_history_id_seq", allocationSize = 50)
     private Integer id;
 
     @Column(name = "transaction_date")
@@ -45,6 +48,8 @@ public class transactionHistory {
     @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt;
 
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     @OneToMany(mappedBy = "transactionHistory", cascade = CascadeType.ALL)
     private List<transactionDetail> transactionDetails;
 }
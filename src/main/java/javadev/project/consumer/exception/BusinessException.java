@@ -1,5 +1,6 @@
 package javadev.project.consumer.exception;
 
+import lombok.AccessLevel;
 import lombok.Getter;
 
 import java.util.HashMap;
@@ -9,42 +10,66 @@ import java.util.Map;
  * Custom business exception class with error code and additional details
  * Extends RuntimeException for unchecked exception handling
  * Supports method chaining for adding error details
+ * The details map is only allocated when details are added or read
  */
 @Getter
 public class BusinessException extends RuntimeException {
 
     private final ErrorCode errorCode;
-    private final Map<String, Object> details;
+
+    @Getter(AccessLevel.NONE)
+    private Map<String, Object> details;
 
     public BusinessException(ErrorCode errorCode) {
         super(errorCode.getMessage());
         this.errorCode = errorCode;
-        this.details = new HashMap<>();
     }
 
     public BusinessException(ErrorCode errorCode, String customMessage) {
         super(customMessage);
         this.errorCode = errorCode;
-        this.details = new HashMap<>();
     }
 
     public BusinessException(ErrorCode errorCode, String customMessage, Throwable cause) {
         super(customMessage, cause);
         this.errorCode = errorCode;
-        this.details = new HashMap<>();
     }
 
     public BusinessException(ErrorCode errorCode, Throwable cause) {
         super(errorCode.getMessage(), cause);
         this.errorCode = errorCode;
-        this.details = new HashMap<>();
+    }
+
+    /**
+     * Constructor for subclasses that may skip capturing the stack trace
+     */
+    protected BusinessException(ErrorCode errorCode, String customMessage, boolean writableStackTrace) {
+        super(customMessage, null, false, writableStackTrace);
+        this.errorCode = errorCode;
+    }
+
+    /**
+     * Get the error details, building them on first access
+     */
+    public Map<String, Object> getDetails() {
+        if (details == null) {
+            details = new HashMap<>();
+            initDetails(details);
+        }
+        return details;
+    }
+
+    /**
+     * Fill in details that are built lazily, on first access
+     */
+    protected void initDetails(Map<String, Object> details) {
     }
 
     /**
      * Add additional details to the exception
      */
     public BusinessException addDetail(String key, Object value) {
-        this.details.put(key, value);
+        getDetails().put(key, value);
         return this;
     }
 
@@ -52,7 +77,7 @@ public class BusinessException extends RuntimeException {
      * Add multiple details at once
      */
     public BusinessException addDetails(Map<String, Object> details) {
-        this.details.putAll(details);
+        getDetails().putAll(details);
         return this;
     }
 
@@ -60,6 +85,7 @@ public class BusinessException extends RuntimeException {
      * Get formatted error message with details
      */
     public String getDetailedMessage() {
+        Map<String, Object> details = getDetails();
         if (details.isEmpty()) {
             return getMessage();
         }
@@ -76,6 +102,6 @@ public class BusinessException extends RuntimeException {
     @Override
     public String toString() {
         return String.format("BusinessException[code=%s, message=%s, details=%s]",
-                errorCode.getCode(), getMessage(), details);
+                errorCode.getCode(), getMessage(), getDetails());
     }
 }
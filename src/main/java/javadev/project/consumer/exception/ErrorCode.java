@@ -6,6 +6,9 @@ import lombok.Getter;
  * Enumeration of business error codes
  * Each error code has a unique code string and descriptive message
  * Used by BusinessException for consistent error handling
+ * Retryable codes mark transient failures that are retried through the retry
+ * topics; all other codes are permanent and go straight to the dead-letter
+ * topic
  */
 @Getter
 public enum ErrorCode {
@@ -14,7 +17,7 @@ public enum ErrorCode {
     INSUFFICIENT_STOCK("PRD002", "Insufficient stock"),
 
     // Transaction related errors
-    TRANSACTION_PROCESSING_ERROR("TXN001", "Transaction processing failed"),
+    TRANSACTION_PROCESSING_ERROR("TXN001", "Transaction processing failed", true),
     INVALID_TRANSACTION_DATE("TXN002", "Invalid transaction date format"),
     INVALID_TRANSACTION_DATA("TXN003", "Invalid transaction data"),
     EMPTY_TRANSACTION_ITEMS("TXN004", "Transaction items cannot be empty"),
@@ -27,14 +30,23 @@ public enum ErrorCode {
     KAFKA_MESSAGE_PARSING_ERROR("KFK001", "Failed to parse Kafka message"),
     KAFKA_CONSUMER_ERROR("KFK002", "Kafka consumer error"),
 
+    // Idempotency errors
+    DUPLICATE_MESSAGE("IDM001", "Message already processed"),
+
     // Database errors
-    DATABASE_ERROR("DB001", "Database operation failed");
+    DATABASE_ERROR("DB001", "Database operation failed", true);
 
     private final String code;
     private final String message;
+    private final boolean retryable;
 
     ErrorCode(String code, String message) {
+        this(code, message, false);
+    }
+
+    ErrorCode(String code, String message, boolean retryable) {
         this.code = code;
         this.message = message;
+        this.retryable = retryable;
     }
 }
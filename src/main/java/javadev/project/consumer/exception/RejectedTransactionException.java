@@ -0,0 +1,56 @@
+package javadev.project.consumer.exception;
+
+import java.util.Map;
+
+/**
+ * Business exception for expected rejections of invalid sales: unknown
+ * product, insufficient stock, invalid date or quantity
+ * Carries no stack trace, and its message and details are only formatted
+ * when read, so rejecting a message costs about as much as creating a
+ * small object
+ *
+ * Details are given as key/value pairs:
+ * new RejectedTransactionException(ErrorCode.PRODUCT_NOT_FOUND, "Product not found", "productId", 42)
+ * has the message "Product not found: productId=42"
+ */
+public class RejectedTransactionException extends BusinessException {
+
+    private final String reason;
+    private final Object[] keyValues;
+    private String message;
+
+    public RejectedTransactionException(ErrorCode errorCode, String reason, Object... keyValues) {
+        super(errorCode, null, false);
+        if (keyValues.length % 2 != 0) {
+            throw new IllegalArgumentException("Details must be key/value pairs");
+        }
+        this.reason = reason;
+        this.keyValues = keyValues;
+    }
+
+    @Override
+    public String getMessage() {
+        if (message == null) {
+            if (keyValues.length == 0) {
+                message = reason;
+            } else {
+                StringBuilder sb = new StringBuilder(reason).append(": ");
+                for (int i = 0; i < keyValues.length; i += 2) {
+                    if (i > 0) {
+                        sb.append(", ");
+                    }
+                    sb.append(keyValues[i]).append('=').append(keyValues[i + 1]);
+                }
+                message = sb.toString();
+            }
+        }
+        return message;
+    }
+
+    @Override
+    protected void initDetails(Map<String, Object> details) {
+        for (int i = 0; i < keyValues.length; i += 2) {
+            details.put((String) keyValues[i], keyValues[i + 1]);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package javadev.project.consumer.exception;
+
+/**
+ * Business exception for transient failures that should be retried
+ * Thrown by the Kafka listener so the message is routed to the retry topics;
+ * any other exception is treated as permanent and sent to the dead-letter
+ * topic
+ */
+public class RetryableBusinessException extends BusinessException {
+
+    public RetryableBusinessException(BusinessException cause) {
+        super(cause.getErrorCode(), cause.getMessage(), cause);
+        addDetails(cause.getDetails());
+    }
+}
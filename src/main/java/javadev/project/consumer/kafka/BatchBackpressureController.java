@@ -0,0 +1,254 @@
+package javadev.project.consumer.kafka;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
+import java.util.function.LongSupplier;
+
+/**
+ * Adaptive backpressure for the batch listener
+ * Sizes the database transactions of the batch listener with additive
+ * increase / multiplicative decrease: each polled batch is processed in
+ * transactions of at most getBatchSize() records. A transaction is congested
+ * when it takes longer than the target latency (connection wait through
+ * commit) or when threads are waiting for a Hikari connection; the size is
+ * then cut by the decrease factor, otherwise it grows by a fixed step.
+ *
+ * After several congested transactions in a row at the minimum size, the
+ * listener container is paused: the consumer keeps polling and heartbeating
+ * without fetching records, so the group does not rebalance. The container
+ * resumes once the pause has elapsed and no thread is waiting for a
+ * connection. Each pause without a healthy transaction in between lasts twice
+ * as long, up to the maximum pause.
+ *
+ * Records already polled when the container pauses are still processed, at
+ * the minimum size; max.poll.records bounds that work.
+ *
+ * Meters: consumer.backpressure.batch.size, consumer.backpressure.paused,
+ * consumer.backpressure.pauses
+ */
+@Component
+@ConditionalOnProperty(name = "kafka.consumer.backpressure.enabled", havingValue = "true")
+@Slf4j
+public class BatchBackpressureController {
+
+    static final String LISTENER_ID = "salesTransactionBatchListener";
+
+    /**
+     * Pauses and resumes the controlled listener container
+     */
+    interface ContainerControl {
+        void pause();
+
+        void resume();
+    }
+
+    private final int minBatchSize;
+    private final int maxBatchSize;
+    private final int additiveIncrease;
+    private final double decreaseFactor;
+    private final long targetLatencyNanos;
+    private final int maxPendingThreads;
+    private final int pauseAfterCongested;
+    private final long minPauseNanos;
+    private final long maxPauseNanos;
+    private final IntSupplier pendingThreads;
+    private final LongSupplier clock;
+    private final ContainerControl container;
+
+    private volatile int batchSize;
+    private volatile boolean paused;
+    private int consecutiveCongested;
+    private long pausedAt;
+    private long pauseNanos;
+    private volatile long pauseCount;
+
+    @Autowired
+    public BatchBackpressureController(
+            KafkaListenerEndpointRegistry registry,
+            DataSource dataSource,
+            MeterRegistry meterRegistry,
+            @Value("${kafka.consumer.backpressure.min-batch-size:10}") int minBatchSize,
+            @Value("${kafka.consumer.batch.max-poll-records:500}") int maxBatchSize,
+            @Value("${kafka.consumer.backpressure.additive-increase:10}") int additiveIncrease,
+            @Value("${kafka.consumer.backpressure.decrease-factor:0.5}") double decreaseFactor,
+            @Value("${kafka.consumer.backpressure.target-latency-ms:500}") long targetLatencyMs,
+            @Value("${kafka.consumer.backpressure.max-pending-threads:0}") int maxPendingThreads,
+            @Value("${kafka.consumer.backpressure.pause-after-congested:3}") int pauseAfterCongested,
+            @Value("${kafka.consumer.backpressure.min-pause-ms:1000}") long minPauseMs,
+            @Value("${kafka.consumer.backpressure.max-pause-ms:30000}") long maxPauseMs) {
+        this(minBatchSize, maxBatchSize, additiveIncrease, decreaseFactor,
+                TimeUnit.MILLISECONDS.toNanos(targetLatencyMs), maxPendingThreads, pauseAfterCongested,
+                TimeUnit.MILLISECONDS.toNanos(minPauseMs), TimeUnit.MILLISECONDS.toNanos(maxPauseMs),
+                hikariPendingThreads(dataSource), System::nanoTime, listenerContainer(registry));
+
+        Gauge.builder("consumer.backpressure.batch.size", this, BatchBackpressureController::getBatchSize)
+                .description("Records per batch listener transaction")
+                .register(meterRegistry);
+        Gauge.builder("consumer.backpressure.paused", this, controller -> controller.isPaused() ? 1 : 0)
+                .description("Whether the batch listener is paused on database saturation")
+                .register(meterRegistry);
+        FunctionCounter.builder("consumer.backpressure.pauses", this, BatchBackpressureController::getPauseCount)
+                .description("Batch listener pauses on database saturation")
+                .register(meterRegistry);
+        log.info("Batch backpressure enabled: batchSize={}..{}, targetLatency={}ms, maxPendingThreads={}",
+                minBatchSize, maxBatchSize, targetLatencyMs, maxPendingThreads);
+    }
+
+    BatchBackpressureController(int minBatchSize, int maxBatchSize, int additiveIncrease, double decreaseFactor,
+            long targetLatencyNanos, int maxPendingThreads, int pauseAfterCongested,
+            long minPauseNanos, long maxPauseNanos, IntSupplier pendingThreads, LongSupplier clock, ContainerControl container) {
+        if (minBatchSize < 1 || maxBatchSize < minBatchSize) {
+            throw new IllegalArgumentException("Batch size bounds must satisfy 1 <= min <= max");
+        }
+        if (decreaseFactor <= 0 || decreaseFactor >= 1) {
+            throw new IllegalArgumentException("Decrease factor must be between 0 and 1");
+        }
+        this.minBatchSize = minBatchSize;
+        this.maxBatchSize = maxBatchSize;
+        this.additiveIncrease = Math.max(1, additiveIncrease);
+        this.decreaseFactor = decreaseFactor;
+        this.targetLatencyNanos = targetLatencyNanos;
+        this.maxPendingThreads = maxPendingThreads;
+        this.pauseAfterCongested = Math.max(1, pauseAfterCongested);
+        this.minPauseNanos = minPauseNanos;
+        this.maxPauseNanos = Math.max(minPauseNanos, maxPauseNanos);
+        this.pendingThreads = pendingThreads;
+        this.clock = clock;
+        this.container = container;
+        this.batchSize = maxBatchSize;
+        this.pauseNanos = minPauseNanos;
+    }
+
+    /**
+     * Maximum number of records to process in the next transaction
+     *
+     * @return Current batch size
+     */
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public boolean isPaused() {
+        return paused;
+    }
+
+    long getPauseCount() {
+        return pauseCount;
+    }
+
+    /**
+     * Record a committed batch transaction and adjust the batch size
+     * The size only grows after full batches, so a quiet topic does not
+     * inflate it
+     *
+     * @param size         Records in the transaction
+     * @param latencyNanos Time from the start of the transaction, including
+     *                     connection wait and retries, until commit
+     */
+    public synchronized void onBatchCompleted(int size, long latencyNanos) {
+        int pending = pendingThreads.getAsInt();
+        if (latencyNanos > targetLatencyNanos || pending > maxPendingThreads) {
+            congested(pending);
+        } else if (size >= batchSize) {
+            batchSize = Math.min(maxBatchSize, batchSize + additiveIncrease);
+            consecutiveCongested = 0;
+            pauseNanos = minPauseNanos;
+        }
+    }
+
+    /**
+     * Record a batch transaction that failed on a database error
+     * Counts as congested
+     */
+    public synchronized void onBatchFailed() {
+        congested(pendingThreads.getAsInt());
+    }
+
+    /**
+     * Resume the container if the pause has elapsed and no thread is waiting
+     * for a connection
+     */
+    @Scheduled(fixedDelayString = "${kafka.consumer.backpressure.check-interval-ms:200}",
+            initialDelayString = "${kafka.consumer.backpressure.check-interval-ms:200}")
+    synchronized void checkResume() {
+        if (!paused || clock.getAsLong() - pausedAt < pauseNanos) {
+            return;
+        }
+        int pending = pendingThreads.getAsInt();
+        if (pending > maxPendingThreads) {
+            return;
+        }
+        paused = false;
+        consecutiveCongested = 0;
+        long pausedMs = TimeUnit.NANOSECONDS.toMillis(clock.getAsLong() - pausedAt);
+        pauseNanos = Math.min(maxPauseNanos, pauseNanos * 2);
+        container.resume();
+        log.info("✓ Database recovered, batch listener resumed: pausedMs={}, batchSize={}", pausedMs, batchSize);
+    }
+
+    private void congested(int pending) {
+        batchSize = Math.max(minBatchSize, (int) (batchSize * decreaseFactor));
+        consecutiveCongested++;
+        if (!paused && batchSize == minBatchSize && consecutiveCongested >= pauseAfterCongested) {
+            paused = true;
+            pausedAt = clock.getAsLong();
+            pauseCount++;
+            container.pause();
+            log.warn("⚠️ Database saturated, batch listener paused: pendingThreads={}, pauseMs={}",
+                    pending, TimeUnit.NANOSECONDS.toMillis(pauseNanos));
+        }
+    }
+
+    private static IntSupplier hikariPendingThreads(DataSource dataSource) {
+        try {
+            if (dataSource.isWrapperFor(HikariDataSource.class)) {
+                HikariDataSource hikari = dataSource.unwrap(HikariDataSource.class);
+                return () -> {
+                    HikariPoolMXBean pool = hikari.getHikariPoolMXBean();
+                    return pool != null ? pool.getThreadsAwaitingConnection() : 0;
+                };
+            }
+        } catch (SQLException e) {
+            log.warn("⚠️ Could not unwrap Hikari data source: {}", e.getMessage());
+        }
+        log.warn("⚠️ Data source is not Hikari, backpressure uses transaction latency only");
+        return () -> 0;
+    }
+
+    private static ContainerControl listenerContainer(KafkaListenerEndpointRegistry registry) {
+        // Looked up on use: listener containers are registered after this bean
+        return new ContainerControl() {
+            @Override
+            public void pause() {
+                MessageListenerContainer container = registry.getListenerContainer(LISTENER_ID);
+                if (container != null) {
+                    container.pause();
+                }
+            }
+
+            @Override
+            public void resume() {
+                MessageListenerContainer container = registry.getListenerContainer(LISTENER_ID);
+                if (container != null) {
+                    container.resume();
+                }
+            }
+        };
+    }
+}
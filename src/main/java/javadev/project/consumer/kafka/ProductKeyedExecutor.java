@@ -0,0 +1,115 @@
+package javadev.project.consumer.kafka;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Executor that runs tasks concurrently unless they share a product
+ * Each task is chained after the last unfinished task of every product it
+ * touches, so records sharing a product keep their order while records with
+ * disjoint product sets run in parallel
+ * The number of tasks in flight is bounded; submit blocks when the window is
+ * full
+ * 
+ * Tasks run on a fixed platform thread pool, or on virtual threads when
+ * kafka.consumer.parallel.virtual-threads is enabled. With virtual threads the
+ * window equals the Hikari pool size, since any task beyond that would only
+ * wait for a connection.
+ */
+@Component
+@ConditionalOnProperty(name = "kafka.consumer.parallel.enabled", havingValue = "true")
+@Slf4j
+public class ProductKeyedExecutor implements DisposableBean {
+
+    private final ExecutorService executor;
+    private final Semaphore inFlight;
+
+    // Last submitted task per product, guarded by itself
+    private final Map<Integer, CompletableFuture<Void>> tails = new HashMap<>();
+
+    @Autowired
+    public ProductKeyedExecutor(
+            @Value("${kafka.consumer.parallel.threads:8}") int threads,
+            @Value("${kafka.consumer.parallel.max-in-flight:256}") int maxInFlight,
+            @Value("${kafka.consumer.parallel.virtual-threads:false}") boolean virtualThreads,
+            @Value("${spring.datasource.hikari.maximum-pool-size:10}") int connectionPoolSize) {
+        this(virtualThreads ? Executors.newVirtualThreadPerTaskExecutor() : Executors.newFixedThreadPool(threads),
+                virtualThreads ? connectionPoolSize : maxInFlight);
+        log.info("Product-keyed executor started: virtualThreads={}, threads={}, maxInFlight={}",
+                virtualThreads, virtualThreads ? "per-task" : threads,
+                virtualThreads ? connectionPoolSize : maxInFlight);
+    }
+
+    ProductKeyedExecutor(ExecutorService executor, int maxInFlight) {
+        this.executor = executor;
+        this.inFlight = new Semaphore(maxInFlight);
+    }
+
+    /**
+     * Submit a task keyed by the products it touches
+     * Blocks while the in-flight window is full
+     *
+     * @param productIds Products touched by the task
+     * @param task       Task to run
+     * @return Future completed when the task has finished
+     * @throws InterruptedException if interrupted while waiting for the window
+     */
+    public CompletableFuture<Void> submit(Collection<Integer> productIds, Runnable task)
+            throws InterruptedException {
+        inFlight.acquire();
+
+        CompletableFuture<Void> result;
+        CompletableFuture<Void> tail;
+        synchronized (tails) {
+            List<CompletableFuture<Void>> predecessors = new ArrayList<>();
+            for (Integer productId : productIds) {
+                CompletableFuture<Void> predecessor = tails.get(productId);
+                if (predecessor != null) {
+                    predecessors.add(predecessor);
+                }
+            }
+
+            result = CompletableFuture.allOf(predecessors.toArray(CompletableFuture[]::new))
+                    .thenRunAsync(task, executor);
+            // Successors wait for completion, not success
+            tail = result.handle((v, e) -> null);
+            for (Integer productId : productIds) {
+                tails.put(productId, tail);
+            }
+        }
+
+        tail.whenComplete((v, e) -> {
+            inFlight.release();
+            synchronized (tails) {
+                for (Integer productId : productIds) {
+                    tails.remove(productId, tail);
+                }
+            }
+        });
+        return result;
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+            log.warn("Product-keyed executor did not finish in-flight tasks before shutdown");
+            executor.shutdownNow();
+        }
+    }
+}
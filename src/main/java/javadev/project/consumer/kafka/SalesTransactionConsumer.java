@@ -1,16 +1,45 @@
 package javadev.project.consumer.kafka;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import javadev.project.consumer.dto.BatchResultDTO;
+import javadev.project.consumer.configuration.KafkaRetryConfig;
 import javadev.project.consumer.dto.TransactionRequestDTO;
 import javadev.project.consumer.entity.transactionHistory;
 import javadev.project.consumer.exception.BusinessException;
 import javadev.project.consumer.exception.ErrorCode;
+import javadev.project.consumer.exception.RejectedTransactionException;
+import javadev.project.consumer.exception.RetryableBusinessException;
+import javadev.project.consumer.service.ConsumerMetrics;
+import javadev.project.consumer.service.ConsumerMetrics.Outcome;
+import javadev.project.consumer.service.ConsumerMetrics.Stage;
+import javadev.project.consumer.service.IdempotencyService;
+import javadev.project.consumer.service.LogSampler;
+import javadev.project.consumer.service.TransactionRetryExecutor;
 import javadev.project.consumer.service.TransactionService;
+import javadev.project.consumer.service.TransactionValidator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.Header;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Kafka consumer for sales transaction messages
  * Listens to configured Kafka topic and processes incoming sales transaction
@@ -23,85 +52,511 @@ import org.springframework.stereotype.Component;
 public class SalesTransactionConsumer {
 
     private final TransactionService transactionService;
-    private final ObjectMapper objectMapper;
+    private final TransactionRetryExecutor retryExecutor;
+    private final ObjectProvider<ProductKeyedExecutor> productKeyedExecutor;
+    private final IdempotencyService idempotencyService;
+    private final TransactionRequestDeserializer requestDeserializer;
+    private final ConsumerMetrics consumerMetrics;
+    private final LogSampler logSampler;
+    private final TransactionValidator transactionValidator;
+    private final ObjectProvider<BatchBackpressureController> backpressureController;
+    private final ObjectProvider<DeadLetterPublishingRecoverer> deadLetterRecoverer;
+    private final KafkaTemplate<String, byte[]> kafkaTemplate;
+
+    @Value("${kafka.consumer.idempotency.message-id-header:message-id}")
+    private String messageIdHeader;
+
+    @Value("${kafka.topic.sales-transaction}")
+    private String salesTransactionTopic;
+
+    @Value("${kafka.retry.publish-attempts:3}")
+    private int publishAttempts;
+
+    @Value("${kafka.retry.publish-backoff-ms:500}")
+    private long publishBackoffMs;
 
     /**
      * Kafka listener for sales transaction topic
+     * Active unless batch or parallel listener mode is enabled
+     * Failures are rethrown so the record is routed to the retry topics
+     * (retryable error codes) or the dead-letter topic (permanent errors)
      */
-    @KafkaListener(topics = "${kafka.topic.sales-transaction}", groupId = "${spring.kafka.consumer.group-id}")
-    public void consume(String message) {
-        log.info("========================================");
-        log.info("Received Kafka message from topic: sales-transaction-adi");
-
-        // Quick validation: Check if message looks like JSON
-        if (!isValidJsonFormat(message)) {
-            log.warn("⚠️ Skipped non-JSON message: {}",
-                    message.length() > 100 ? message.substring(0, 100) + "..." : message);
-            return;
-        }
+    @KafkaListener(id = "salesTransactionListener", topics = "${kafka.topic.sales-transaction}", groupId = "${spring.kafka.consumer.group-id}", autoStartup = "#{!${kafka.consumer.batch.enabled:false} && !${kafka.consumer.parallel.enabled:false}}")
+    public void consume(ConsumerRecord<String, byte[]> record) {
+        byte[] message = record.value();
+        log.debug("Received Kafka message: partition={}, offset={}", record.partition(), record.offset());
 
-        log.info("Message: {}", message);
-        log.info("========================================");
+        // Full payload is decoded only for rate-limited samples when debug logging is on
+        if (log.isDebugEnabled() && logSampler.samplePayload()) {
+            log.debug("Message: {}", new String(message, StandardCharsets.UTF_8));
+        }
 
         try {
             // Step 1: Parse JSON to DTO
-            TransactionRequestDTO request = parseMessage(message);
-            log.info("✓ Parsed message: date={}, items={}",
+            TransactionRequestDTO request = parseRecord(record);
+            // Reject invalid sales before taking a database connection
+            transactionValidator.validate(request).throwIfRejected();
+            log.debug("✓ Parsed message: id={}, date={}, items={}",
+                    request.getMessageId(),
                     request.getTransactionDate(),
                     request.getItems().size());
 
-            // Step 2: Process transaction
-            transactionHistory transaction = transactionService.processTransaction(request);
-            log.info("✓ SUCCESS - Transaction processed: id={}, totalPrice={}",
-                    transaction.getId(),
-                    transaction.getTotalPrice());
+            // Step 2: Process transaction unless already processed
+            handleRequest(request, record.timestamp());
 
         } catch (BusinessException e) {
             log.error("✗ Business Error [{}]: {}",
                     e.getErrorCode().getCode(),
                     e.getMessage());
+            recordFailure(e.getErrorCode());
             // Transaction rolled back automatically
+            throw e.getErrorCode().isRetryable() ? new RetryableBusinessException(e) : e;
 
         } catch (Exception e) {
             log.error("✗ System Error: {} - Cause: {}",
                     e.getMessage(),
                     e.getCause() != null ? e.getCause().getMessage() : "Unknown");
+            recordFailure(ErrorCode.DATABASE_ERROR);
+            throw new RetryableBusinessException(
+                    new BusinessException(ErrorCode.DATABASE_ERROR, e.getMessage(), e));
         }
     }
 
     /**
-     * Quick validation to check if message looks like JSON
+     * Kafka listener for sales transaction topic in batch mode
+     * Receives the whole poll result and processes it in one database transaction
+     * With kafka.consumer.backpressure.enabled the poll result is split into
+     * transactions sized by BatchBackpressureController
+     * Falls back to per-record processing if the batch transaction fails
+     *
+     * Retryable failures are published to the listener retry topic as they
+     * occur, permanent failures are dead-lettered in offset order, so the
+     * partition is never held up by a retry. Only a record whose failure
+     * cannot be published, after bounded retries, ends the batch with
+     * BatchListenerFailedException: offsets before it are committed and the
+     * error handler retries or dead-letters it; later records are redelivered
+     * and those already committed are skipped as duplicates
      */
-    private boolean isValidJsonFormat(String message) {
-        if (message == null || message.trim().isEmpty()) {
-            return false;
+    @KafkaListener(id = "salesTransactionBatchListener", topics = "${kafka.topic.sales-transaction}", groupId = "${spring.kafka.consumer.group-id}", containerFactory = "batchKafkaListenerContainerFactory", autoStartup = "${kafka.consumer.batch.enabled:false}")
+    public void consumeBatch(List<ConsumerRecord<String, byte[]>> records) {
+        log.info("Received Kafka batch: records={}", records.size());
+
+        // Step 1: Parse all records, setting invalid messages aside
+        List<TransactionRequestDTO> requests = new ArrayList<>(records.size());
+        List<Integer> recordIndexes = new ArrayList<>(records.size());
+        NavigableMap<Integer, BusinessException> rejected = new TreeMap<>();
+        Set<String> messageIds = new HashSet<>();
+        for (int index = 0; index < records.size(); index++) {
+            ConsumerRecord<String, byte[]> record = records.get(index);
+            try {
+                TransactionRequestDTO request = parseRecord(record);
+                transactionValidator.validate(request).throwIfRejected();
+                if (!messageIds.add(request.getMessageId())
+                        || idempotencyService.isDuplicate(request.getMessageId())) {
+                    log.info("Skipped duplicate message: id={}", request.getMessageId());
+                    consumerMetrics.recordOutcome(Outcome.DUPLICATE);
+                    continue;
+                }
+                requests.add(request);
+                recordIndexes.add(index);
+            } catch (BusinessException e) {
+                log.error("✗ Business Error [{}] at offset {}-{}: {}",
+                        e.getErrorCode().getCode(),
+                        record.partition(),
+                        record.offset(),
+                        e.getMessage());
+                recordFailure(e.getErrorCode());
+                rejected.put(index, e);
+            }
+        }
+
+        // Step 2: Process the batch in one transaction, or in transactions
+        // sized by the backpressure controller when it is enabled
+        BatchBackpressureController controller = backpressureController.getIfAvailable();
+        int from = 0;
+        while (from < requests.size()) {
+            int to = controller != null
+                    ? Math.min(requests.size(), from + controller.getBatchSize())
+                    : requests.size();
+            processBatch(records, requests.subList(from, to), recordIndexes.subList(from, to), rejected, controller);
+            from = to;
         }
-        String trimmed = message.trim();
-        return (trimmed.startsWith("{") && trimmed.endsWith("}")) ||
-                (trimmed.startsWith("[") && trimmed.endsWith("]"));
+
+        deadLetter(records, rejected);
     }
 
     /**
-     * Parse JSON message string to TransactionRequestDTO
-     * Converts JSON message to DTO object using ObjectMapper
+     * Process parsed requests in one database transaction
+     * Falls back to per-record processing if the transaction fails
+     * Permanent failures are added to rejected; retryable failures are
+     * published to the listener retry topic
      *
-     * @param message Raw JSON message string from Kafka
-     * @return TransactionRequestDTO object
-     * @throws BusinessException if JSON parsing fails with error code KFK001
+     * @param records       Polled records
+     * @param requests      Parsed, deduplicated requests
+     * @param recordIndexes Index in records, by request index
+     * @param rejected      Permanent failures by record index, not yet
+     *                      dead-lettered
+     * @param controller    Backpressure controller to report to, or null
+     */
+    private void processBatch(List<ConsumerRecord<String, byte[]>> records, List<TransactionRequestDTO> requests,
+            List<Integer> recordIndexes, NavigableMap<Integer, BusinessException> rejected,
+            BatchBackpressureController controller) {
+        long start = System.nanoTime();
+        BatchResultDTO result;
+        try {
+            result = retryExecutor.execute(() -> transactionService.processBatch(requests));
+        } catch (Exception e) {
+            log.error("✗ Batch failed, falling back to per-record processing: {}", e.getMessage());
+            if (controller != null) {
+                controller.onBatchFailed();
+            }
+            for (int i = 0; i < requests.size(); i++) {
+                int index = recordIndexes.get(i);
+                BusinessException failure = processRequest(requests.get(i), records.get(index).timestamp());
+                if (failure != null) {
+                    reject(records, rejected, index, requests.get(i).getMessageId(), failure);
+                }
+            }
+            return;
+        }
+
+        if (controller != null) {
+            controller.onBatchCompleted(requests.size(), System.nanoTime() - start);
+        }
+        log.info("✓ SUCCESS - Batch processed: size={}, processed={}, failed={}, elapsed={}ms, throughput={} msg/s",
+                result.size(),
+                result.getProcessed().size(),
+                result.getFailures().size(),
+                result.getElapsedNanos() / 1_000_000,
+                String.format("%.1f", result.throughputPerSecond()));
+        for (int i = 0; i < requests.size(); i++) {
+            int index = recordIndexes.get(i);
+            BusinessException failure = result.getFailures().get(i);
+            if (failure == null) {
+                recordSuccess(records.get(index).timestamp());
+                continue;
+            }
+            log.error("✗ Business Error [{}]: {}",
+                    failure.getErrorCode().getCode(),
+                    failure.getMessage());
+            recordFailure(failure.getErrorCode());
+            reject(records, rejected, index, requests.get(i).getMessageId(), failure);
+        }
+    }
+
+    /**
+     * Set a permanent failure aside for the dead-letter topic, or publish a
+     * retryable failure to the listener retry topic
+     * If the retry cannot be published, the permanent failures in front of
+     * the record are dead-lettered and the batch ends at the record
+     *
+     * @param records   Polled records
+     * @param rejected  Permanent failures by record index, not yet
+     *                  dead-lettered
+     * @param index     Index of the failed record
+     * @param messageId Resolved message ID of the record
+     * @param failure   Failure of the record
+     * @throws BatchListenerFailedException if the retry cannot be published
+     */
+    private void reject(List<ConsumerRecord<String, byte[]>> records,
+            NavigableMap<Integer, BusinessException> rejected, int index, String messageId,
+            BusinessException failure) {
+        if (!failure.getErrorCode().isRetryable()) {
+            rejected.put(index, failure);
+            return;
+        }
+        try {
+            publishFailure(records.get(index), messageId, failure);
+        } catch (RuntimeException e) {
+            deadLetter(records, rejected.headMap(index, false));
+            throw batchFailure(records, index, e);
+        }
+    }
+
+    /**
+     * Publish permanent failures to the dead-letter topic in offset order
+     * Published entries are removed from the map
+     *
+     * @param records  Polled records
+     * @param rejected Permanent failures by record index
+     * @throws BatchListenerFailedException at the first failure that cannot be
+     *                                      published
+     */
+    private void deadLetter(List<ConsumerRecord<String, byte[]>> records, Map<Integer, BusinessException> rejected) {
+        Iterator<Map.Entry<Integer, BusinessException>> entries = rejected.entrySet().iterator();
+        while (entries.hasNext()) {
+            Map.Entry<Integer, BusinessException> entry = entries.next();
+            try {
+                publishFailure(records.get(entry.getKey()), null, entry.getValue());
+            } catch (RuntimeException e) {
+                throw batchFailure(records, entry.getKey(), e);
+            }
+            entries.remove();
+        }
+    }
+
+    private static BatchListenerFailedException batchFailure(List<ConsumerRecord<String, byte[]>> records,
+            int index, RuntimeException cause) {
+        ConsumerRecord<String, byte[]> record = records.get(index);
+        return new BatchListenerFailedException(
+                "Failure could not be published at offset " + record.partition() + "-" + record.offset(),
+                cause, index);
+    }
+
+    /**
+     * Kafka listener for sales transaction topic in parallel mode
+     * Hands each record off to the product-keyed executor: records sharing a
+     * product are processed in order, others run concurrently. The returned
+     * future completes when the record has finished; the container then
+     * acknowledges it, and commits offsets only up to the lowest unfinished
+     * record.
+     *
+     * Failed records complete once they are published: permanent failures to
+     * the dead-letter topic, retryable failures to the listener retry topic.
+     * A failure that cannot be published, after bounded retries, completes
+     * the future exceptionally; the container hands the record to the sales
+     * transaction error handler, which retries or dead-letters it, so the
+     * partition never stalls on an unacknowledged record.
+     */
+    @KafkaListener(id = "salesTransactionParallelListener", topics = "${kafka.topic.sales-transaction}", groupId = "${spring.kafka.consumer.group-id}", containerFactory = "parallelKafkaListenerContainerFactory", autoStartup = "${kafka.consumer.parallel.enabled:false}")
+    public CompletableFuture<Void> consumeParallel(ConsumerRecord<String, byte[]> record)
+            throws InterruptedException {
+        TransactionRequestDTO request;
+        try {
+            request = parseRecord(record);
+            transactionValidator.validate(request).throwIfRejected();
+        } catch (BusinessException e) {
+            log.error("✗ Business Error [{}] at offset {}-{}: {}",
+                    e.getErrorCode().getCode(),
+                    record.partition(),
+                    record.offset(),
+                    e.getMessage());
+            recordFailure(e.getErrorCode());
+            try {
+                publishFailure(record, null, e);
+                return CompletableFuture.completedFuture(null);
+            } catch (RuntimeException publishError) {
+                return CompletableFuture.failedFuture(publishError);
+            }
+        }
+
+        Set<Integer> productIds = new HashSet<>();
+        request.getItems().forEach(item -> productIds.add(item.getProductId()));
+
+        return productKeyedExecutor.getObject()
+                .submit(productIds, () -> {
+                    BusinessException failure = processRequest(request, record.timestamp());
+                    if (failure != null) {
+                        publishFailure(record, request.getMessageId(), failure);
+                    }
+                });
+    }
+
+    /**
+     * Kafka listener for the listener retry topic of batch and parallel mode
+     * Processes records one at a time like the record listener; the retry
+     * container factory retries them with backoff, then dead-letters them
+     */
+    @KafkaListener(id = "salesTransactionRetryListener", topics = "${kafka.topic.sales-transaction}" + KafkaRetryConfig.LISTENER_RETRY_SUFFIX, groupId = "${spring.kafka.consumer.group-id}", containerFactory = "retryKafkaListenerContainerFactory", autoStartup = "#{${kafka.consumer.batch.enabled:false} || ${kafka.consumer.parallel.enabled:false}}")
+    public void consumeRetry(ConsumerRecord<String, byte[]> record) {
+        consume(record);
+    }
+
+    /**
+     * Publish a record that failed in batch or parallel mode
+     * Permanent failures go to the dead-letter topic, retryable failures to the
+     * listener retry topic with the resolved message ID, so the retry is
+     * deduplicated against the original. Each publish is retried with
+     * exponential backoff, up to kafka.retry.publish-attempts times.
+     *
+     * @param record    Failed record
+     * @param messageId Resolved message ID, used for retryable failures only
+     * @param failure   Failure of the record
+     * @throws BusinessException if every attempt failed; a
+     *                           RetryableBusinessException for retryable
+     *                           failures, so the error handler classifies it
+     *                           like the original failure
+     */
+    private void publishFailure(ConsumerRecord<String, byte[]> record, String messageId, BusinessException failure) {
+        BusinessException handoff = failure.getErrorCode().isRetryable()
+                ? new RetryableBusinessException(failure)
+                : failure;
+        long backoffMs = publishBackoffMs;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                if (failure.getErrorCode().isRetryable()) {
+                    ProducerRecord<String, byte[]> retry = new ProducerRecord<>(
+                            salesTransactionTopic + KafkaRetryConfig.LISTENER_RETRY_SUFFIX, record.key(), record.value());
+                    retry.headers().add(messageIdHeader, messageId.getBytes(StandardCharsets.UTF_8));
+                    kafkaTemplate.send(retry).join();
+                } else {
+                    deadLetterRecoverer.getObject().accept(record, failure);
+                }
+                return;
+            } catch (RuntimeException e) {
+                if (attempt >= publishAttempts) {
+                    log.error("✗ Failed to publish failed record at offset {}-{} after {} attempts: {}",
+                            record.partition(), record.offset(), attempt, e.getMessage(), e);
+                    throw handoff;
+                }
+                log.warn("⚠️ Failed to publish failed record at offset {}-{}, attempt {}/{}: {}",
+                        record.partition(), record.offset(), attempt, publishAttempts, e.getMessage());
+            }
+            try {
+                Thread.sleep(backoffMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw handoff;
+            }
+            backoffMs *= 2;
+        }
+    }
+
+    /**
+     * Process a single parsed request in its own transaction
+     * Skips messages that were already processed
+     * Used by the parallel listener, and as fallback when a batch
+     * transaction is rolled back
+     *
+     * @param request         Parsed transaction request DTO
+     * @param recordTimestamp Kafka record timestamp
+     * @return Failure of the request, or null if it was processed or skipped
      */
-    private TransactionRequestDTO parseMessage(String message) {
+    private BusinessException processRequest(TransactionRequestDTO request, long recordTimestamp) {
         try {
-            return objectMapper.readValue(message, TransactionRequestDTO.class);
+            handleRequest(request, recordTimestamp);
+            return null;
+
+        } catch (BusinessException e) {
+            log.error("✗ Business Error [{}]: {}",
+                    e.getErrorCode().getCode(),
+                    e.getMessage());
+            recordFailure(e.getErrorCode());
+            return e;
+
         } catch (Exception e) {
-            // Clean error log without stack trace
-            String errorMsg = e.getMessage();
-            if (errorMsg != null && errorMsg.length() > 200) {
-                errorMsg = errorMsg.substring(0, 200) + "...";
+            log.error("✗ System Error: {} - Cause: {}",
+                    e.getMessage(),
+                    e.getCause() != null ? e.getCause().getMessage() : "Unknown");
+            recordFailure(ErrorCode.DATABASE_ERROR);
+            return new BusinessException(ErrorCode.DATABASE_ERROR, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Process a single parsed request unless it was already processed
+     * Messages already recorded in processed_message are skipped, whether
+     * caught by the idempotency filter or by the unique index
+     * Exceptions are propagated to the caller
+     *
+     * @param request         Parsed transaction request DTO
+     * @param recordTimestamp Kafka record timestamp
+     */
+    private void handleRequest(TransactionRequestDTO request, long recordTimestamp) {
+        if (idempotencyService.isDuplicate(request.getMessageId())) {
+            log.info("Skipped duplicate message: id={}", request.getMessageId());
+            consumerMetrics.recordOutcome(Outcome.DUPLICATE);
+            return;
+        }
+
+        transactionHistory transaction;
+        try {
+            transaction = retryExecutor.execute(() -> transactionService.processTransaction(request));
+        } catch (BusinessException e) {
+            if (e.getErrorCode() != ErrorCode.DUPLICATE_MESSAGE) {
+                throw e;
             }
-            throw new BusinessException(
-                    ErrorCode.KAFKA_MESSAGE_PARSING_ERROR,
-                    "Invalid JSON format: " + errorMsg)
-                    .addDetail("rawMessage", message.length() > 100 ? message.substring(0, 100) + "..." : message);
+            // Not in the idempotency filter, rejected by the unique index
+            log.info("Skipped duplicate message rejected by unique index: id={}", request.getMessageId());
+            consumerMetrics.recordOutcome(Outcome.DUPLICATE);
+            return;
+        }
+        recordSuccess(recordTimestamp);
+        // The one INFO line per transaction
+        log.info("✓ Transaction processed: messageId={}, id={}, date={}, items={}, totalPrice={}, latencyMs={}",
+                request.getMessageId(),
+                transaction.getId(),
+                request.getTransactionDate(),
+                request.getItems().size(),
+                transaction.getTotalPrice(),
+                recordTimestamp > 0 ? System.currentTimeMillis() - recordTimestamp : -1);
+    }
+
+    /**
+     * Record a committed message and its end-to-end latency
+     *
+     * @param recordTimestamp Kafka record timestamp
+     */
+    private void recordSuccess(long recordTimestamp) {
+        consumerMetrics.recordOutcome(Outcome.PROCESSED);
+        consumerMetrics.recordEndToEnd(recordTimestamp);
+    }
+
+    /**
+     * Record a failed message by error code
+     *
+     * @param errorCode Error code of the failure
+     */
+    private void recordFailure(ErrorCode errorCode) {
+        consumerMetrics.recordError(errorCode);
+        consumerMetrics.recordOutcome(Outcome.FAILED);
+    }
+
+    /**
+     * Resolve the message ID used for idempotent consumption
+     * Prefers the message ID header, then the message_id field, and falls back
+     * to topic-partition-offset
+     *
+     * @param record  Kafka record
+     * @param request Parsed transaction request DTO
+     * @return Message ID
+     */
+    private String resolveMessageId(ConsumerRecord<String, byte[]> record, TransactionRequestDTO request) {
+        Header header = record.headers().lastHeader(messageIdHeader);
+        if (header != null && header.value() != null && header.value().length > 0) {
+            return new String(header.value(), StandardCharsets.UTF_8);
+        }
+        if (request.getMessageId() != null && !request.getMessageId().isBlank()) {
+            return request.getMessageId();
+        }
+        return record.topic() + "-" + record.partition() + "-" + record.offset();
+    }
+
+    /**
+     * Parse a Kafka record and resolve its message ID
+     * Payloads that are not JSON at all are rejected without invoking the
+     * parser
+     *
+     * @param record Kafka record
+     * @return TransactionRequestDTO with its message ID set
+     * @throws BusinessException with error code KFK001 if the payload is not
+     *                           valid JSON
+     */
+    private TransactionRequestDTO parseRecord(ConsumerRecord<String, byte[]> record) {
+        byte[] message = record.value();
+        if (!TransactionRequestDeserializer.looksLikeJson(message)) {
+            throw new RejectedTransactionException(ErrorCode.KAFKA_MESSAGE_PARSING_ERROR,
+                    "Message is not JSON", "preview", TransactionRequestDeserializer.preview(message));
+        }
+        TransactionRequestDTO request = parseMessage(message);
+        request.setMessageId(resolveMessageId(record, request));
+        return request;
+    }
+
+    /**
+     * Parse raw Kafka message bytes to TransactionRequestDTO
+     * Parses directly from the byte array without an intermediate String
+     *
+     * @param message Raw JSON message bytes from Kafka
+     * @return TransactionRequestDTO object
+     * @throws BusinessException if JSON parsing fails with error code KFK001
+     */
+    TransactionRequestDTO parseMessage(byte[] message) {
+        long start = System.nanoTime();
+        try {
+            return requestDeserializer.deserialize(null, message);
+        } finally {
+            consumerMetrics.recordStage(Stage.PARSE, System.nanoTime() - start);
         }
     }
 }
@@ -0,0 +1,127 @@
+package javadev.project.consumer.kafka;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import javadev.project.consumer.dto.TransactionRequestDTO;
+import javadev.project.consumer.exception.BusinessException;
+import javadev.project.consumer.exception.ErrorCode;
+import javadev.project.consumer.exception.RejectedTransactionException;
+import org.apache.kafka.common.serialization.Deserializer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.function.Supplier;
+
+/**
+ * Kafka deserializer from raw record bytes to TransactionRequestDTO
+ * Parses straight from the byte array with a cached ObjectReader, so no
+ * intermediate String is created for the payload
+ * The JSON sanity check only looks at the first and last non-whitespace bytes
+ * instead of trimming copies of the message
+ */
+public class TransactionRequestDeserializer implements Deserializer<TransactionRequestDTO> {
+
+    private static final int PREVIEW_LENGTH = 100;
+    private static final int ERROR_LENGTH = 200;
+
+    private final ObjectReader reader;
+
+    public TransactionRequestDeserializer(ObjectMapper objectMapper) {
+        this.reader = objectMapper.readerFor(TransactionRequestDTO.class)
+                .with(DeserializationFeature.FAIL_ON_TRAILING_TOKENS);
+    }
+
+    /**
+     * Deserialize record bytes to TransactionRequestDTO
+     *
+     * @param topic Topic the record was read from
+     * @param data  Raw record value
+     * @return Parsed TransactionRequestDTO
+     * @throws BusinessException if JSON parsing fails with error code KFK001, or
+     *                           TXN002 if the transaction date is invalid
+     */
+    @Override
+    public TransactionRequestDTO deserialize(String topic, byte[] data) {
+        try {
+            return reader.readValue(data);
+        } catch (Exception e) {
+            // Business errors raised by field deserializers keep their error code
+            for (Throwable t = e; t != null; t = t.getCause()) {
+                if (t instanceof BusinessException businessException) {
+                    throw businessException;
+                }
+            }
+
+            // Parser message and payload preview are formatted only if logged
+            throw new RejectedTransactionException(
+                    ErrorCode.KAFKA_MESSAGE_PARSING_ERROR,
+                    "Invalid JSON format",
+                    "error", new LazyDetail(() -> truncate(e.getMessage())),
+                    "rawMessage", new LazyDetail(() -> preview(data)));
+        }
+    }
+
+    /**
+     * Quick validation to check if message looks like JSON
+     * Checks that the first and last non-whitespace bytes are matching braces
+     * or brackets
+     *
+     * @param data Raw record value
+     * @return true if the message looks like a JSON object or array
+     */
+    public static boolean looksLikeJson(byte[] data) {
+        if (data == null) {
+            return false;
+        }
+        int start = 0;
+        int end = data.length - 1;
+        while (start <= end && isWhitespace(data[start])) {
+            start++;
+        }
+        while (end > start && isWhitespace(data[end])) {
+            end--;
+        }
+        if (start >= end) {
+            return false;
+        }
+        return (data[start] == '{' && data[end] == '}') || (data[start] == '[' && data[end] == ']');
+    }
+
+    /**
+     * Decode at most the first 100 bytes of a message for logging
+     *
+     * @param data Raw record value
+     * @return Message preview
+     */
+    public static String preview(byte[] data) {
+        if (data == null) {
+            return "null";
+        }
+        if (data.length <= PREVIEW_LENGTH) {
+            return new String(data, StandardCharsets.UTF_8);
+        }
+        return new String(data, 0, PREVIEW_LENGTH, StandardCharsets.UTF_8) + "...";
+    }
+
+    private static String truncate(String message) {
+        if (message != null && message.length() > ERROR_LENGTH) {
+            return message.substring(0, ERROR_LENGTH) + "...";
+        }
+        return message;
+    }
+
+    private static boolean isWhitespace(byte b) {
+        return b == ' ' || b == '\n' || b == '\r' || b == '\t';
+    }
+
+    /**
+     * Detail value that is formatted when the rejection message or details
+     * are read
+     */
+    private record LazyDetail(Supplier<String> value) {
+        @Override
+        public String toString() {
+            return value.get();
+        }
+    }
+}
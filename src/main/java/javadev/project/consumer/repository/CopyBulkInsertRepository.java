@@ -0,0 +1,167 @@
+package javadev.project.consumer.repository;
+
+import jakarta.persistence.EntityManager;
+import javadev.project.consumer.entity.stockLog;
+import javadev.project.consumer.entity.transactionDetail;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Session;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.springframework.jdbc.UncategorizedSQLException;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+/**
+ * Bulk insert of transaction detail and stock log rows with PostgreSQL COPY
+ * Streams CSV rows over the connection bound to the current transaction, so
+ * the rows commit or roll back together with the JPA-managed header rows.
+ * IDs are reserved from the entity sequences in blocks with the same pooled
+ * semantics as Hibernate: each nextval v owns the IDs v-49..v, so one call
+ * covers 50 rows and never overlaps IDs handed out by Hibernate. The IDs
+ * are set on the entities passed in, which are not persisted.
+ */
+@Repository
+@RequiredArgsConstructor
+@Slf4j
+public class CopyBulkInsertRepository {
+
+    private static final String COPY_TRANSACTION_DETAIL = "COPY transaction_detail "
+            + "(id, transaction_id, transaction_date, product_id, qty, price, total_price, created_at) FROM STDIN WITH (FORMAT csv)";
+    private static final String COPY_STOCK_LOG = "COPY stock_log "
+            + "(id, product_id, quantity_change, log_type, movement_count, ledger_pending, created_at) FROM STDIN WITH (FORMAT csv)";
+    static final String TRANSACTION_DETAIL_SEQUENCE = "transaction_detail_id_seq";
+    static final String STOCK_LOG_SEQUENCE = "stock_log_id_seq";
+    /** Must match the allocationSize of the entity sequence generators */
+    static final int ID_BLOCK_SIZE = 50;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final DataSource dataSource;
+    private final EntityManager entityManager;
+
+    /**
+     * Insert transaction detail rows with COPY
+     *
+     * @param details Transaction details referencing saved transactions
+     * @return Number of rows inserted
+     */
+    public long copyTransactionDetails(List<transactionDetail> details) {
+        int[] ids = reserveIds(TRANSACTION_DETAIL_SEQUENCE, details.size());
+        for (int i = 0; i < ids.length; i++) {
+            details.get(i).setId(ids[i]);
+        }
+        LocalDateTime now = LocalDateTime.now();
+        return copy(COPY_TRANSACTION_DETAIL, details, (detail, row) -> row
+                .append(detail.getId()).append(',')
+                .append(detail.getTransactionHistory().getId()).append(',')
+                .append(detail.getTransactionDate()).append(',')
+                .append(detail.getProduct().getId()).append(',')
+                .append(detail.getQty()).append(',')
+                .append(detail.getPrice().toPlainString()).append(',')
+                .append(detail.getTotalPrice().toPlainString()).append(',')
+                .append(now).append('\n'));
+    }
+
+    /**
+     * Insert stock log rows with COPY
+     *
+     * @param logs Stock logs
+     * @return Number of rows inserted
+     */
+    public long copyStockLogs(List<stockLog> logs) {
+        int[] ids = reserveIds(STOCK_LOG_SEQUENCE, logs.size());
+        for (int i = 0; i < ids.length; i++) {
+            logs.get(i).setId(ids[i]);
+        }
+        LocalDateTime now = LocalDateTime.now();
+        return copy(COPY_STOCK_LOG, logs, (stockLog, row) -> row
+                .append(stockLog.getId()).append(',')
+                .append(stockLog.getProduct().getId()).append(',')
+                .append(stockLog.getQuantityChange()).append(',')
+                .append(stockLog.getLogType()).append(',')
+                .append(stockLog.getMovementCount()).append(',')
+                .append(Boolean.TRUE.equals(stockLog.getLedgerPending())).append(',')
+                .append(now).append('\n'));
+    }
+
+    /**
+     * Reserve IDs from a pooled sequence
+     * Takes one nextval per block of ID_BLOCK_SIZE rows; a value below the
+     * block size (the first value of a fresh sequence) only owns the IDs from
+     * 1, as in Hibernate's pooled optimizer
+     *
+     * @param sequence Sequence name
+     * @param count    Number of IDs
+     * @return Reserved IDs
+     */
+    int[] reserveIds(String sequence, int count) {
+        int[] ids = new int[count];
+        if (count == 0) {
+            return ids;
+        }
+        Session session = entityManager.unwrap(Session.class);
+        String nextValue = session.getFactory().unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices().getDialect().getSequenceSupport().getSequenceNextValString(sequence);
+        int filled = 0;
+        while (filled < count) {
+            long hi = ((Number) session.createNativeQuery(nextValue, Long.class).getSingleResult()).longValue();
+            for (long id = Math.max(1, hi - ID_BLOCK_SIZE + 1); id <= hi && filled < count; id++) {
+                ids[filled++] = Math.toIntExact(id);
+            }
+        }
+        return ids;
+    }
+
+    private <T> long copy(String sql, List<T> rows, BiConsumer<T, StringBuilder> formatter) {
+        if (rows.isEmpty()) {
+            return 0;
+        }
+
+        // Referenced header rows may still be queued in the persistence context
+        entityManager.flush();
+
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        try {
+            CopyIn copyIn = connection.unwrap(PGConnection.class).getCopyAPI().copyIn(sql);
+            try {
+                StringBuilder buffer = new StringBuilder(BUFFER_SIZE + 256);
+                for (T row : rows) {
+                    formatter.accept(row, buffer);
+                    if (buffer.length() >= BUFFER_SIZE) {
+                        write(copyIn, buffer);
+                    }
+                }
+                write(copyIn, buffer);
+                long inserted = copyIn.endCopy();
+                log.debug("Copied {} rows: {}", inserted, sql);
+                return inserted;
+            } finally {
+                if (copyIn.isActive()) {
+                    copyIn.cancelCopy();
+                }
+            }
+        } catch (SQLException e) {
+            throw new UncategorizedSQLException("COPY", sql, e);
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+    }
+
+    private static void write(CopyIn copyIn, StringBuilder buffer) throws SQLException {
+        if (buffer.isEmpty()) {
+            return;
+        }
+        byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+        copyIn.writeToCopy(bytes, 0, bytes.length);
+        buffer.setLength(0);
+    }
+}
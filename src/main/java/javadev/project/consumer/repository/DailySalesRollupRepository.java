@@ -0,0 +1,34 @@
+package javadev.project.consumer.repository;
+
+import javadev.project.consumer.entity.dailySalesRollup;
+import javadev.project.consumer.entity.dailySalesRollupId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Repository interface for Daily Sales Rollup entity
+ * Dashboard reads go here instead of aggregating transaction detail rows
+ */
+@Repository
+public interface DailySalesRollupRepository extends JpaRepository<dailySalesRollup, dailySalesRollupId> {
+
+    /**
+     * Find rollup rows for one day, one per product sold
+     * 
+     * @param saleDate Sale date
+     * @return List of daily sales rollup rows
+     */
+    List<dailySalesRollup> findByIdSaleDate(LocalDate saleDate);
+
+    /**
+     * Find rollup rows for a date range
+     * 
+     * @param startDate Start date
+     * @param endDate   End date
+     * @return List of daily sales rollup rows
+     */
+    List<dailySalesRollup> findByIdSaleDateBetween(LocalDate startDate, LocalDate endDate);
+}
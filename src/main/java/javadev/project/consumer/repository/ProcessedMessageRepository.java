@@ -0,0 +1,34 @@
+package javadev.project.consumer.repository;
+
+import javadev.project.consumer.entity.processedMessage;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Repository interface for Processed Message entity
+ * Provides lookups used by idempotent message consumption
+ */
+@Repository
+public interface ProcessedMessageRepository extends JpaRepository<processedMessage, Integer> {
+
+    /**
+     * Check whether a message has already been processed
+     * 
+     * @param messageId Message ID
+     * @return true if a processed row exists
+     */
+    boolean existsByMessageId(String messageId);
+
+    /**
+     * Find the most recently processed message IDs
+     * 
+     * @param pageable Page limiting the number of IDs
+     * @return List of message IDs, newest first
+     */
+    @Query("SELECT pm.messageId FROM processedMessage pm ORDER BY pm.id DESC")
+    List<String> findRecentMessageIds(Pageable pageable);
+}
@@ -1,9 +1,16 @@
 package javadev.project.consumer.repository;
 
+import javadev.project.consumer.dto.ProductCatalogEntry;
+import javadev.project.consumer.dto.ProductStockView;
 import javadev.project.consumer.entity.product;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -28,4 +35,38 @@ public interface ProductRepository extends JpaRepository<product, Integer> {
      * @return Optional of product
      */
     Optional<product> findBySku(String sku);
+
+    /**
+     * Find catalog snapshots for the given product IDs
+     * Selects only the cached columns, without category or supplier joins
+     * 
+     * @param ids Product IDs
+     * @return Catalog snapshots of the products found
+     */
+    @Query("SELECT new javadev.project.consumer.dto.ProductCatalogEntry(p.id, p.sku, p.productName, p.price) "
+            + "FROM product p WHERE p.id IN :ids")
+    List<ProductCatalogEntry> findCatalogEntriesByIdIn(@Param("ids") Collection<Integer> ids);
+
+    /**
+     * Find current stock for the given product IDs
+     * 
+     * @param ids Product IDs
+     * @return Stock of the products found
+     */
+    @Query("SELECT p.id AS id, p.currentStock AS currentStock FROM product p WHERE p.id IN :ids")
+    List<ProductStockView> findStockByIdIn(@Param("ids") Collection<Integer> ids);
+
+    /**
+     * Atomically decrement product stock if enough is available
+     * The stock check and the decrement happen in one statement, so concurrent
+     * transactions cannot oversell
+     * 
+     * @param id  Product ID
+     * @param qty Quantity to reduce
+     * @return Number of rows updated (0 if stock is insufficient)
+     */
+    @Modifying
+    @Query("UPDATE product p SET p.currentStock = p.currentStock - :qty, p.updatedAt = LOCAL DATETIME "
+            + "WHERE p.id = :id AND p.currentStock >= :qty")
+    int decrementStock(@Param("id") Integer id, @Param("qty") Integer qty);
 }
@@ -1,16 +1,26 @@
 package javadev.project.consumer.repository;
 
+import jakarta.persistence.QueryHint;
+import javadev.project.consumer.dto.StockLogView;
 import javadev.project.consumer.entity.stockLog;
 import javadev.project.consumer.entity.product;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Repository interface for Stock Log entity
  * Provides CRUD operations and custom queries for stock movement tracking
+ * Range scans over large periods should use the stream or keyset page
+ * variants, which return StockLogView projections instead of entities
  */
 @Repository
 public interface StockLogRepository extends JpaRepository<stockLog, Integer> {
@@ -40,12 +50,107 @@ public interface StockLogRepository extends JpaRepository<stockLog, Integer> {
      */
     List<stockLog> findByLogType(String logType);
 
+    /**
+     * Find stock logs of a product within a date range
+     * Filters on the partition key, so only the months in range are scanned
+     * 
+     * @param product   Product entity
+     * @param startDate Start date
+     * @param endDate   End date
+     * @return List of stock logs
+     */
+    List<stockLog> findByProductAndCreatedAtBetween(product product, LocalDateTime startDate, LocalDateTime endDate);
+
     /**
      * Find stock logs by date range
+     * Filters on the partition key, so only the months in range are scanned
      * 
      * @param startDate Start date
      * @param endDate   End date
      * @return List of stock logs
      */
     List<stockLog> findByCreatedAtBetween(LocalDateTime startDate, LocalDateTime endDate);
+
+    /**
+     * Stream stock logs by date range
+     * Rows are fetched from the database in chunks and never enter the
+     * persistence context; must be called in a read-only transaction and the
+     * stream closed after use
+     * 
+     * @param startDate Start date
+     * @param endDate   End date
+     * @return Stream of stock log projections ordered by creation time and ID
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new javadev.project.consumer.dto.StockLogView(sl.id, sl.product.id, sl.quantityChange, "
+            + "sl.logType, sl.movementCount, sl.createdAt) FROM stockLog sl "
+            + "WHERE sl.createdAt BETWEEN :startDate AND :endDate ORDER BY sl.createdAt, sl.id")
+    Stream<StockLogView> streamByCreatedAtBetween(
+            @Param("startDate") LocalDateTime startDate,
+            @Param("endDate") LocalDateTime endDate);
+
+    /**
+     * Find one page of stock logs by date range, after a cursor
+     * Keyset pagination on (created_at, id): pass the creation time and ID of
+     * the last row of the previous page (startDate and 0 for the first page);
+     * the idx_stock_log_date index seeks straight to the cursor, so cost per
+     * page does not grow with the page number
+     * 
+     * @param startDate      Start date
+     * @param endDate        End date
+     * @param afterCreatedAt Creation time of the last row of the previous page
+     * @param afterId        ID of the last row of the previous page
+     * @param limit          Page size
+     * @return Stock log projections ordered by creation time and ID
+     */
+    @Query("SELECT new javadev.project.consumer.dto.StockLogView(sl.id, sl.product.id, sl.quantityChange, "
+            + "sl.logType, sl.movementCount, sl.createdAt) FROM stockLog sl "
+            + "WHERE sl.createdAt BETWEEN :startDate AND :endDate "
+            + "AND (sl.createdAt, sl.id) > (:afterCreatedAt, :afterId) ORDER BY sl.createdAt, sl.id")
+    List<StockLogView> findPageByCreatedAtBetween(
+            @Param("startDate") LocalDateTime startDate,
+            @Param("endDate") LocalDateTime endDate,
+            @Param("afterCreatedAt") LocalDateTime afterCreatedAt,
+            @Param("afterId") Integer afterId,
+            Limit limit);
+
+    /**
+     * Stream stock logs by log type
+     * Same contract as streamByCreatedAtBetween
+     * 
+     * @param logType Log type
+     * @return Stream of stock log projections ordered by creation time and ID
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new javadev.project.consumer.dto.StockLogView(sl.id, sl.product.id, sl.quantityChange, "
+            + "sl.logType, sl.movementCount, sl.createdAt) FROM stockLog sl "
+            + "WHERE sl.logType = :logType ORDER BY sl.createdAt, sl.id")
+    Stream<StockLogView> streamByLogType(@Param("logType") String logType);
+
+    /**
+     * Find one page of stock logs by log type, after a cursor
+     * Same keyset as findPageByCreatedAtBetween, served by
+     * idx_stock_log_type_date; pass the epoch and 0 for the first page
+     * 
+     * @param logType        Log type
+     * @param afterCreatedAt Creation time of the last row of the previous page
+     * @param afterId        ID of the last row of the previous page
+     * @param limit          Page size
+     * @return Stock log projections ordered by creation time and ID
+     */
+    @Query("SELECT new javadev.project.consumer.dto.StockLogView(sl.id, sl.product.id, sl.quantityChange, "
+            + "sl.logType, sl.movementCount, sl.createdAt) FROM stockLog sl "
+            + "WHERE sl.logType = :logType "
+            + "AND (sl.createdAt, sl.id) > (:afterCreatedAt, :afterId) ORDER BY sl.createdAt, sl.id")
+    List<StockLogView> findPageByLogType(
+            @Param("logType") String logType,
+            @Param("afterCreatedAt") LocalDateTime afterCreatedAt,
+            @Param("afterId") Integer afterId,
+            Limit limit);
 }
@@ -7,6 +7,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.List;
 
 /**
@@ -24,6 +25,17 @@ public interface TransactionDetailRepository extends JpaRepository<transactionDe
      */
     List<transactionDetail> findByTransactionHistory(transactionHistory transactionHistory);
 
+    /**
+     * Find transaction details of one transaction within its date partition
+     * Passing the transaction date lets PostgreSQL prune to a single partition
+     * 
+     * @param transactionId   Transaction ID
+     * @param transactionDate Transaction date
+     * @return List of transaction details
+     */
+    List<transactionDetail> findByTransactionHistoryIdAndTransactionDate(Integer transactionId,
+            LocalDate transactionDate);
+
     /**
      * Calculate total price for a transaction
      * 
@@ -1,16 +1,27 @@
 package javadev.project.consumer.repository;
 
+import jakarta.persistence.QueryHint;
+import javadev.project.consumer.dto.TransactionHistoryView;
 import javadev.project.consumer.entity.transactionHistory;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Repository interface for Transaction History entity
  * Provides CRUD operations and custom queries for transaction history
  * management
+ * Range scans over large periods should use the stream or keyset page
+ * variants, which return TransactionHistoryView projections instead of
+ * entities
  */
 @Repository
 public interface TransactionHistoryRepository extends JpaRepository<transactionHistory, Integer> {
@@ -25,10 +36,57 @@ public interface TransactionHistoryRepository extends JpaRepository<transactionH
 
     /**
      * Find transactions by date range
+     * Filters on the partition key, so only the months in range are scanned
      * 
      * @param startDate Start date
      * @param endDate   End date
      * @return List of transaction history
      */
     List<transactionHistory> findByTransactionDateBetween(LocalDate startDate, LocalDate endDate);
+
+    /**
+     * Stream transactions by date range
+     * Rows are fetched from the database in chunks and never enter the
+     * persistence context; must be called in a read-only transaction and the
+     * stream closed after use
+     * 
+     * @param startDate Start date
+     * @param endDate   End date
+     * @return Stream of transaction history projections ordered by date and ID
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new javadev.project.consumer.dto.TransactionHistoryView(th.id, th.transactionDate, "
+            + "th.totalPrice, th.createdAt) FROM transactionHistory th "
+            + "WHERE th.transactionDate BETWEEN :startDate AND :endDate ORDER BY th.transactionDate, th.id")
+    Stream<TransactionHistoryView> streamByTransactionDateBetween(
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate);
+
+    /**
+     * Find one page of transactions by date range, after a cursor
+     * Keyset pagination on (transaction_date, id): pass the date and ID of
+     * the last row of the previous page (startDate and 0 for the first page);
+     * the idx_transaction_date index seeks straight to the cursor, so cost
+     * per page does not grow with the page number
+     * 
+     * @param startDate Start date
+     * @param endDate   End date
+     * @param afterDate Transaction date of the last row of the previous page
+     * @param afterId   ID of the last row of the previous page
+     * @param limit     Page size
+     * @return Transaction history projections ordered by date and ID
+     */
+    @Query("SELECT new javadev.project.consumer.dto.TransactionHistoryView(th.id, th.transactionDate, "
+            + "th.totalPrice, th.createdAt) FROM transactionHistory th "
+            + "WHERE th.transactionDate BETWEEN :startDate AND :endDate "
+            + "AND (th.transactionDate, th.id) > (:afterDate, :afterId) ORDER BY th.transactionDate, th.id")
+    List<TransactionHistoryView> findPageByTransactionDateBetween(
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate,
+            @Param("afterDate") LocalDate afterDate,
+            @Param("afterId") Integer afterId,
+            Limit limit);
 }
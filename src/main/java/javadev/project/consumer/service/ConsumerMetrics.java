@@ -0,0 +1,178 @@
+package javadev.project.consumer.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import javadev.project.consumer.exception.ErrorCode;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micrometer instrumentation for the consumer pipeline
+ * All meters are registered up front, so recording is a lookup-free update
+ * of a pre-built meter
+ *
+ * Meters:
+ * - consumer.stage.duration{stage=parse|validate|persist|commit}
+ * - consumer.end.to.end.latency: Kafka record timestamp to commit
+ * - consumer.transaction.items: items per transaction
+ * - consumer.messages{outcome=processed|duplicate|skipped|failed}
+ * - consumer.errors{code,retryable}: one counter per ErrorCode
+ * - product.cache.requests{result=hit|miss}, product.cache.evictions,
+ *   product.cache.size
+ *
+ * Per-partition consumer lag comes from the Kafka client metrics
+ * (kafka.consumer.fetch.manager.records.lag{topic,partition}), bound in
+ * AppConfig
+ */
+@Component
+public class ConsumerMetrics {
+
+    /**
+     * Pipeline stage of one message
+     */
+    public enum Stage {
+        PARSE, VALIDATE, PERSIST, COMMIT
+    }
+
+    /**
+     * Final outcome of one message
+     */
+    public enum Outcome {
+        PROCESSED, DUPLICATE, SKIPPED, FAILED
+    }
+
+    private final Map<Stage, Timer> stageTimers = new EnumMap<>(Stage.class);
+    private final Map<Outcome, Counter> outcomeCounters = new EnumMap<>(Outcome.class);
+    private final Map<ErrorCode, Counter> errorCounters = new EnumMap<>(ErrorCode.class);
+    private final Timer endToEndLatency;
+    private final DistributionSummary itemsPerTransaction;
+
+    public ConsumerMetrics(MeterRegistry registry, ProductCatalogCache productCatalogCache) {
+        for (Stage stage : Stage.values()) {
+            stageTimers.put(stage, Timer.builder("consumer.stage.duration")
+                    .description("Time spent in one pipeline stage")
+                    .tag("stage", stage.name().toLowerCase())
+                    .publishPercentileHistogram()
+                    .register(registry));
+        }
+        for (Outcome outcome : Outcome.values()) {
+            outcomeCounters.put(outcome, Counter.builder("consumer.messages")
+                    .description("Messages consumed, by outcome")
+                    .tag("outcome", outcome.name().toLowerCase())
+                    .register(registry));
+        }
+        for (ErrorCode errorCode : ErrorCode.values()) {
+            errorCounters.put(errorCode, Counter.builder("consumer.errors")
+                    .description("Business errors by error code")
+                    .tag("code", errorCode.getCode())
+                    .tag("retryable", String.valueOf(errorCode.isRetryable()))
+                    .register(registry));
+        }
+
+        endToEndLatency = Timer.builder("consumer.end.to.end.latency")
+                .description("Kafka record timestamp to database commit")
+                .publishPercentileHistogram()
+                .register(registry);
+        itemsPerTransaction = DistributionSummary.builder("consumer.transaction.items")
+                .description("Line items per transaction")
+                .baseUnit("items")
+                .publishPercentileHistogram()
+                .register(registry);
+
+        FunctionCounter.builder("product.cache.requests", productCatalogCache, ProductCatalogCache::getHitCount)
+                .tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("product.cache.requests", productCatalogCache, ProductCatalogCache::getMissCount)
+                .tag("result", "miss")
+                .register(registry);
+        FunctionCounter.builder("product.cache.evictions", productCatalogCache, ProductCatalogCache::getEvictionCount)
+                .register(registry);
+        Gauge.builder("product.cache.size", productCatalogCache, ProductCatalogCache::size)
+                .register(registry);
+    }
+
+    /**
+     * Record the duration of one stage
+     *
+     * @param stage Pipeline stage
+     * @param nanos Elapsed time in nanoseconds
+     */
+    public void recordStage(Stage stage, long nanos) {
+        stageTimers.get(stage).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Time the commit of the current database transaction
+     * Measures from the start of commit processing (including the final
+     * Hibernate flush) until the commit completes; rollbacks are not recorded
+     */
+    public void timeCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        Timer commitTimer = stageTimers.get(Stage.COMMIT);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            private long start;
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                start = System.nanoTime();
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED && start != 0) {
+                    commitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                }
+            }
+        });
+    }
+
+    /**
+     * Record latency from the Kafka record timestamp to now
+     * Call after the transaction has committed
+     *
+     * @param recordTimestamp Kafka record timestamp in epoch milliseconds
+     */
+    public void recordEndToEnd(long recordTimestamp) {
+        if (recordTimestamp > 0) {
+            endToEndLatency.record(Math.max(0, System.currentTimeMillis() - recordTimestamp), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Record the number of items in one transaction
+     *
+     * @param items Item count
+     */
+    public void recordItems(int items) {
+        itemsPerTransaction.record(items);
+    }
+
+    /**
+     * Record the outcome of one message
+     *
+     * @param outcome Message outcome
+     */
+    public void recordOutcome(Outcome outcome) {
+        outcomeCounters.get(outcome).increment();
+    }
+
+    /**
+     * Record a business error
+     *
+     * @param errorCode Error code
+     */
+    public void recordError(ErrorCode errorCode) {
+        errorCounters.get(errorCode).increment();
+    }
+}
@@ -0,0 +1,207 @@
+package javadev.project.consumer.service;
+
+import jakarta.annotation.PostConstruct;
+import javadev.project.consumer.entity.processedMessage;
+import javadev.project.consumer.entity.transactionHistory;
+import javadev.project.consumer.repository.ProcessedMessageRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Service class for idempotent message consumption
+ * Tracks processed message IDs in the processed_message table, fronted by an
+ * in-memory bloom filter and LRU cache:
+ * - bloom filter miss: message is definitely new, no database hit
+ * - LRU hit: message was processed recently, no database hit
+ * - otherwise: confirmed against the processed_message table
+ * The unique index on message_id remains the final guard against duplicates:
+ * TransactionService turns a violation of it into a DUPLICATE_MESSAGE error,
+ * so a redelivery the filter no longer knows about is skipped, not retried
+ */
+@Service
+@Slf4j
+public class IdempotencyService implements DisposableBean {
+
+    // Unique index on processed_message.message_id, see database-setup.sql
+    static final String MESSAGE_ID_INDEX = "idx_processed_message_id";
+
+    // PostgreSQL unique_violation
+    private static final String UNIQUE_VIOLATION = "23505";
+
+    private final ProcessedMessageRepository processedMessageRepository;
+    private final int expectedInsertions;
+    private final double falsePositiveRate;
+    private final int warmupSize;
+    private final Map<String, Boolean> recentMessages;
+    private final AtomicInteger insertions = new AtomicInteger();
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    private final ExecutorService rebuilder;
+    private volatile BloomFilter bloomFilter;
+
+    public IdempotencyService(
+            ProcessedMessageRepository processedMessageRepository,
+            @Value("${idempotency.bloom.expected-insertions:1000000}") int expectedInsertions,
+            @Value("${idempotency.bloom.false-positive-rate:0.01}") double falsePositiveRate,
+            @Value("${idempotency.lru.size:10000}") int lruSize,
+            @Value("${idempotency.warmup-size:100000}") int warmupSize) {
+        this.processedMessageRepository = processedMessageRepository;
+        this.expectedInsertions = expectedInsertions;
+        this.falsePositiveRate = falsePositiveRate;
+        this.warmupSize = warmupSize;
+        this.bloomFilter = new BloomFilter(expectedInsertions, falsePositiveRate);
+        this.recentMessages = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                return size() > lruSize;
+            }
+        });
+        this.rebuilder = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "idempotency-filter-rebuild");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Load the most recently processed message IDs into a new bloom filter
+     * Redeliveries after a crash or rebalance are recent, so they are caught
+     * without a database hit. The new filter also takes the IDs in the LRU
+     * cache and replaces the current one only when complete, so lookups are
+     * never answered by a half-built filter.
+     */
+    @PostConstruct
+    public void warmUp() {
+        BloomFilter filter = new BloomFilter(expectedInsertions, falsePositiveRate);
+        List<String> messageIds = processedMessageRepository.findRecentMessageIds(PageRequest.of(0, warmupSize));
+        messageIds.forEach(filter::put);
+        List<String> recent;
+        synchronized (recentMessages) {
+            recent = new ArrayList<>(recentMessages.keySet());
+        }
+        recent.forEach(filter::put);
+        bloomFilter = filter;
+        insertions.set(messageIds.size() + recent.size());
+        log.info("Idempotency filter warmed up with {} message IDs", messageIds.size());
+    }
+
+    @Override
+    public void destroy() {
+        rebuilder.shutdownNow();
+    }
+
+    /**
+     * Check whether a message has already been processed
+     *
+     * @param messageId Message ID
+     * @return true if the message was already processed
+     */
+    public boolean isDuplicate(String messageId) {
+        if (messageId == null) {
+            return false;
+        }
+        if (!bloomFilter.mightContain(messageId)) {
+            return false;
+        }
+        if (recentMessages.get(messageId) != null) {
+            return true;
+        }
+        boolean processed = processedMessageRepository.existsByMessageId(messageId);
+        if (processed) {
+            recentMessages.put(messageId, Boolean.TRUE);
+        }
+        return processed;
+    }
+
+    /**
+     * Record a message as processed in the current database transaction
+     * The in-memory filter is updated only after the transaction commits
+     *
+     * @param messageId   Message ID
+     * @param transaction Transaction history created by the message
+     */
+    public void recordProcessed(String messageId, transactionHistory transaction) {
+        if (messageId == null) {
+            return;
+        }
+
+        processedMessageRepository.save(processedMessage.builder()
+                .messageId(messageId)
+                .transactionHistory(transaction)
+                .build());
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    remember(messageId);
+                }
+            });
+        } else {
+            remember(messageId);
+        }
+    }
+
+    /**
+     * Check whether an exception, or any of its causes, is a violation of the
+     * unique index on processed_message.message_id
+     *
+     * @param e Exception thrown while writing a transaction
+     * @return true if the message ID was already recorded
+     */
+    public static boolean isDuplicateMessageViolation(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof ConstraintViolationException violation
+                    && mentionsMessageIdIndex(violation.getConstraintName())) {
+                return true;
+            }
+            if (t instanceof SQLException sqlException && UNIQUE_VIOLATION.equals(sqlException.getSQLState())
+                    && mentionsMessageIdIndex(sqlException.getMessage())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean mentionsMessageIdIndex(String text) {
+        return text != null && text.toLowerCase(Locale.ROOT).contains(MESSAGE_ID_INDEX);
+    }
+
+    private void remember(String messageId) {
+        // Saturated filter gives mostly false positives; rebuild from recent IDs
+        // off the commit path, the current filter keeps answering meanwhile
+        if (insertions.incrementAndGet() > expectedInsertions && rebuilding.compareAndSet(false, true)) {
+            log.warn("Idempotency bloom filter saturated, rebuilding from recent message IDs");
+            rebuilder.execute(this::rebuildQuietly);
+        }
+        bloomFilter.put(messageId);
+        recentMessages.put(messageId, Boolean.TRUE);
+    }
+
+    private void rebuildQuietly() {
+        try {
+            warmUp();
+        } catch (Exception e) {
+            log.error("✗ Idempotency filter rebuild failed: {}", e.getMessage(), e);
+        } finally {
+            rebuilding.set(false);
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package javadev.project.consumer.service;
+
+import java.util.Arrays;
+
+/**
+ * Minimal int to int hash map with open addressing and linear probing
+ * Keys and values are stored in primitive arrays, so lookups and updates do
+ * not box or allocate. Not thread-safe; callers synchronize or stop writing
+ * before publishing it. Entries are never removed, which keeps probing simple for a fixed set of products.
+ */
+class IntIntOpenHashMap {
+
+    private static final int EMPTY = 0;
+    private static final float LOAD_FACTOR = 0.5f;
+
+    private int[] keys;
+    private int[] values;
+    private int mask;
+    private int size;
+
+    // Key 0 would collide with the empty marker, so it lives outside the table
+    private boolean hasZeroKey;
+    private int zeroValue;
+
+    IntIntOpenHashMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(4, (int) (expectedSize / LOAD_FACTOR)) - 1) << 1;
+        this.keys = new int[capacity];
+        this.values = new int[capacity];
+        this.mask = capacity - 1;
+    }
+
+    boolean containsKey(int key) {
+        if (key == EMPTY) {
+            return hasZeroKey;
+        }
+        return keys[indexOf(key)] == key;
+    }
+
+    /**
+     * Value for the key, or the default if absent
+     */
+    int get(int key, int defaultValue) {
+        if (key == EMPTY) {
+            return hasZeroKey ? zeroValue : defaultValue;
+        }
+        int index = indexOf(key);
+        return keys[index] == key ? values[index] : defaultValue;
+    }
+
+    void put(int key, int value) {
+        if (key == EMPTY) {
+            if (!hasZeroKey) {
+                hasZeroKey = true;
+                size++;
+            }
+            zeroValue = value;
+            return;
+        }
+        int index = indexOf(key);
+        if (keys[index] != key) {
+            keys[index] = key;
+            size++;
+            if (size > keys.length * LOAD_FACTOR) {
+                values[index] = value;
+                rehash(keys.length << 1);
+                return;
+            }
+        }
+        values[index] = value;
+    }
+
+    /**
+     * Add delta to the value of an existing key
+     *
+     * @return New value
+     * @throws IllegalArgumentException if the key is absent
+     */
+    int addTo(int key, int delta) {
+        if (key == EMPTY) {
+            if (!hasZeroKey) {
+                throw new IllegalArgumentException("No entry for key " + key);
+            }
+            return zeroValue += delta;
+        }
+        int index = indexOf(key);
+        if (keys[index] != key) {
+            throw new IllegalArgumentException("No entry for key " + key);
+        }
+        return values[index] += delta;
+    }
+
+    int size() {
+        return size;
+    }
+
+    void clear() {
+        Arrays.fill(keys, EMPTY);
+        hasZeroKey = false;
+        size = 0;
+    }
+
+    /**
+     * Slot holding the key, or the empty slot where it would be inserted
+     */
+    private int indexOf(int key) {
+        int index = mix(key) & mask;
+        while (keys[index] != EMPTY && keys[index] != key) {
+            index = (index + 1) & mask;
+        }
+        return index;
+    }
+
+    private void rehash(int capacity) {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new int[capacity];
+        values = new int[capacity];
+        mask = capacity - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                int index = indexOf(oldKeys[i]);
+                keys[index] = oldKeys[i];
+                values[index] = oldValues[i];
+            }
+        }
+    }
+
+    private static int mix(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
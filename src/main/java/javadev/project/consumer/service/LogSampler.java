@@ -0,0 +1,86 @@
+package javadev.project.consumer.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Rate limits verbose hot-path log lines
+ * Payload dumps, per-item lines and repeated alerts (such as low stock on
+ * every sale of a product) are logged at most N times per second each, so
+ * turning on DEBUG under load cannot flood the appenders; the
+ * per-transaction summary line is never sampled
+ *
+ * Check the log level first, so no sampling budget is spent on lines that
+ * would not be written:
+ * if (log.isDebugEnabled() && logSampler.sampleItem()) { ... }
+ */
+@Component
+public class LogSampler {
+
+    private final Window payloads;
+    private final Window items;
+    private final Window alerts;
+
+    public LogSampler(
+            @Value("${logging.sample.payloads-per-second:5}") int payloadsPerSecond,
+            @Value("${logging.sample.items-per-second:20}") int itemsPerSecond,
+            @Value("${logging.sample.alerts-per-second:5}") int alertsPerSecond) {
+        this.payloads = new Window(payloadsPerSecond);
+        this.items = new Window(itemsPerSecond);
+        this.alerts = new Window(alertsPerSecond);
+    }
+
+    /**
+     * @return true if a message payload may be logged now
+     */
+    public boolean samplePayload() {
+        return payloads.tryAcquire();
+    }
+
+    /**
+     * @return true if a per-item line may be logged now
+     */
+    public boolean sampleItem() {
+        return items.tryAcquire();
+    }
+
+    /**
+     * @return true if a repeated per-item alert may be logged now
+     */
+    public boolean sampleAlert() {
+        return alerts.tryAcquire();
+    }
+
+    /**
+     * Fixed one-second window; a race at the window boundary can let a few
+     * extra lines through, which is fine for logging
+     */
+    private static final class Window {
+
+        private static final long WINDOW_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+        private final int limit;
+        private final AtomicLong windowStart = new AtomicLong(System.nanoTime());
+        private final AtomicInteger count = new AtomicInteger();
+
+        private Window(int limit) {
+            this.limit = limit;
+        }
+
+        private boolean tryAcquire() {
+            if (limit <= 0) {
+                return false;
+            }
+            long now = System.nanoTime();
+            long start = windowStart.get();
+            if (now - start >= WINDOW_NANOS && windowStart.compareAndSet(start, now)) {
+                count.set(0);
+            }
+            return count.incrementAndGet() <= limit;
+        }
+    }
+}
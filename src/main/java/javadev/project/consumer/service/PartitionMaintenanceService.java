@@ -0,0 +1,256 @@
+package javadev.project.consumer.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Maintains the monthly range partitions of the append-only tables
+ * Creates partitions for the coming months ahead of time, so rows never land
+ * in the default partition, and detaches partitions older than the retention
+ * period. Detached partitions are left in place as standalone tables for
+ * archiving; nothing is dropped.
+ *
+ * Rows that already landed in the default partition for a month are moved
+ * into the new partition: it is created as a standalone table, filled from
+ * the default partition and attached, in one database transaction. History
+ * and detail partitions of a month are created together, since deleting
+ * history rows from the default partition cascades to their detail rows.
+ *
+ * Before a stock_log partition is detached, a CARRY_FORWARD row per product
+ * with the sum of its movements in that partition is written to the current
+ * month, in the same transaction, so stock reconciliation still sees every
+ * product's full balance. Partitions with rows still pending in the stock
+ * ledger are not detached.
+ *
+ * Each table and month is maintained on its own; a failure is logged and the
+ * rest carries on.
+ *
+ * Partitions are named table_yYYYYmMM, e.g. stock_log_y2026m02, matching
+ * database-setup.sql
+ */
+@Component
+@ConditionalOnProperty(name = "partition.maintenance.enabled", havingValue = "true")
+@Slf4j
+public class PartitionMaintenanceService {
+
+    static final String LOG_TYPE_CARRY_FORWARD = "CARRY_FORWARD";
+
+    // Detail rows reference history rows, so detail partitions detach first
+    private static final List<String> TABLES = List.of("transaction_detail", "stock_log", "transaction_history");
+
+    // Created together, referenced table first
+    private static final List<List<String>> CREATE_GROUPS = List.of(
+            List.of("transaction_history", "transaction_detail"),
+            List.of("stock_log"));
+
+    private static final Map<String, String> PARTITION_KEYS = Map.of(
+            "transaction_history", "transaction_date",
+            "transaction_detail", "transaction_date",
+            "stock_log", "created_at");
+
+    private static final String LIST_PARTITIONS_SQL = """
+            SELECT c.relname
+            FROM pg_inherits i
+            JOIN pg_class c ON c.oid = i.inhrelid
+            WHERE i.inhparent = ?::regclass
+            """;
+
+    private static final String TABLE_EXISTS_SQL = "SELECT to_regclass(?) IS NOT NULL";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int monthsAhead;
+    private final int retentionMonths;
+    private final long intervalHours;
+
+    public PartitionMaintenanceService(
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            @Value("${partition.months-ahead:3}") int monthsAhead,
+            @Value("${partition.retention-months:0}") int retentionMonths,
+            @Value("${partition.maintenance.interval-hours:24}") long intervalHours) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.monthsAhead = monthsAhead;
+        this.retentionMonths = retentionMonths;
+        this.intervalHours = intervalHours;
+    }
+
+    /**
+     * Runs on startup and then every interval
+     */
+    @Scheduled(fixedDelayString = "${partition.maintenance.interval-hours:24}", timeUnit = TimeUnit.HOURS)
+    void scheduledMaintain() {
+        int failures = maintain();
+        if (failures == 0) {
+            log.info("✓ Partitions maintained: {} months ahead, retention {} months",
+                    monthsAhead, retentionMonths > 0 ? retentionMonths : "unlimited");
+        } else {
+            log.warn("⚠️ Partitions maintained with {} failures, retried in {} hours", failures, intervalHours);
+        }
+    }
+
+    /**
+     * Create upcoming partitions and detach expired ones
+     *
+     * @return Number of tables and months that failed
+     */
+    public int maintain() {
+        int failures = 0;
+        YearMonth current = YearMonth.now();
+        for (int i = 0; i <= monthsAhead; i++) {
+            YearMonth month = current.plusMonths(i);
+            for (List<String> group : CREATE_GROUPS) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> createPartitions(group, month));
+                } catch (Exception e) {
+                    failures++;
+                    log.error("✗ Could not create {} partitions of {}: {}", month, group, e.getMessage(), e);
+                }
+            }
+        }
+
+        if (retentionMonths > 0) {
+            YearMonth oldestKept = current.minusMonths(retentionMonths);
+            for (String table : TABLES) {
+                try {
+                    failures += detachPartitionsBefore(table, oldestKept);
+                } catch (Exception e) {
+                    failures++;
+                    log.error("✗ Could not list partitions of {}: {}", table, e.getMessage(), e);
+                }
+            }
+        }
+        return failures;
+    }
+
+    /**
+     * Create the missing partitions of a group of tables for one month
+     * Rows of the month in the default partitions are moved into them
+     *
+     * @param tables Tables, referenced table first
+     * @param month  Month to create
+     */
+    private void createPartitions(List<String> tables, YearMonth month) {
+        String from = month.atDay(1).toString();
+        String to = month.plusMonths(1).atDay(1).toString();
+        List<String> missing = tables.stream()
+                .filter(table -> !exists(partitionName(table, month)))
+                .toList();
+        if (missing.isEmpty()) {
+            return;
+        }
+
+        int[] moved = new int[missing.size()];
+        for (int i = 0; i < missing.size(); i++) {
+            String table = missing.get(i);
+            String partition = partitionName(table, month);
+            jdbcTemplate.execute(String.format(
+                    "CREATE TABLE %s (LIKE %s INCLUDING DEFAULTS INCLUDING CONSTRAINTS)", partition, table));
+            if (exists(defaultPartitionName(table))) {
+                moved[i] = jdbcTemplate.update(String.format(
+                        "INSERT INTO %s SELECT * FROM %s WHERE %s >= '%s' AND %s < '%s'",
+                        partition, defaultPartitionName(table), PARTITION_KEYS.get(table), from,
+                        PARTITION_KEYS.get(table), to));
+            }
+        }
+
+        // Referencing rows leave the default partition first
+        for (int i = missing.size() - 1; i >= 0; i--) {
+            String table = missing.get(i);
+            if (moved[i] > 0) {
+                jdbcTemplate.update(String.format("DELETE FROM %s WHERE %s >= '%s' AND %s < '%s'",
+                        defaultPartitionName(table), PARTITION_KEYS.get(table), from, PARTITION_KEYS.get(table), to));
+            }
+        }
+
+        for (int i = 0; i < missing.size(); i++) {
+            String table = missing.get(i);
+            String partition = partitionName(table, month);
+            jdbcTemplate.execute(String.format("ALTER TABLE %s ATTACH PARTITION %s FOR VALUES FROM ('%s') TO ('%s')",
+                    table, partition, from, to));
+            if (moved[i] > 0) {
+                log.warn("⚠️ Created partition {} and moved {} rows into it from the default partition",
+                        partition, moved[i]);
+            } else {
+                log.info("Created partition {}", partition);
+            }
+        }
+    }
+
+    /**
+     * Detach the partitions of a table older than the oldest kept month
+     *
+     * @param table      Partitioned table
+     * @param oldestKept Oldest month to keep attached
+     * @return Number of partitions that failed to detach
+     */
+    private int detachPartitionsBefore(String table, YearMonth oldestKept) {
+        Pattern pattern = Pattern.compile(Pattern.quote(table) + "_y(\\d{4})m(\\d{2})");
+        List<String> partitions = jdbcTemplate.queryForList(LIST_PARTITIONS_SQL, String.class, table);
+
+        int failures = 0;
+        for (String partition : partitions) {
+            Matcher matcher = pattern.matcher(partition);
+            if (!matcher.matches()) {
+                continue;
+            }
+            YearMonth month = YearMonth.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2)));
+            if (!month.isBefore(oldestKept)) {
+                continue;
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status -> detachPartition(table, partition));
+            } catch (Exception e) {
+                failures++;
+                log.error("✗ Could not detach partition {} from {}: {}", partition, table, e.getMessage(), e);
+            }
+        }
+        return failures;
+    }
+
+    private void detachPartition(String table, String partition) {
+        if ("stock_log".equals(table)) {
+            Boolean pending = jdbcTemplate.queryForObject(String.format(
+                    "SELECT EXISTS (SELECT 1 FROM %s WHERE ledger_pending)", partition), Boolean.class);
+            if (Boolean.TRUE.equals(pending)) {
+                log.warn("⚠️ Partition {} still has stock ledger rows pending, not detached", partition);
+                return;
+            }
+            int products = jdbcTemplate.update(String.format("""
+                    INSERT INTO stock_log (product_id, quantity_change, log_type, movement_count, ledger_pending, created_at)
+                    SELECT product_id, SUM(quantity_change), '%s', 1, FALSE, CURRENT_TIMESTAMP
+                    FROM %s
+                    GROUP BY product_id
+                    """, LOG_TYPE_CARRY_FORWARD, partition));
+            log.info("Carried forward the balance of {} products from {}", products, partition);
+        }
+        jdbcTemplate.execute(String.format("ALTER TABLE %s DETACH PARTITION %s", table, partition));
+        log.info("Detached expired partition {} from {}", partition, table);
+    }
+
+    private boolean exists(String table) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(TABLE_EXISTS_SQL, Boolean.class, table));
+    }
+
+    static String partitionName(String table, YearMonth month) {
+        return String.format("%s_y%04dm%02d", table, month.getYear(), month.getMonthValue());
+    }
+
+    static String defaultPartitionName(String table) {
+        return table + "_default";
+    }
+}
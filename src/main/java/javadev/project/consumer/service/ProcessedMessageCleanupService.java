@@ -0,0 +1,70 @@
+package javadev.project.consumer.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deletes processed_message rows older than the retention period
+ * Runs in short batches, each in its own statement, so the table is never
+ * locked for long and the consumer keeps writing meanwhile. The retention
+ * period must be longer than the topic retention, otherwise an old message
+ * could be redelivered after its row is gone.
+ */
+@Component
+@ConditionalOnProperty(name = "idempotency.cleanup.enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class ProcessedMessageCleanupService {
+
+    private static final String DELETE_EXPIRED_SQL = """
+            DELETE FROM processed_message
+            WHERE id IN (
+                SELECT id FROM processed_message
+                WHERE processed_at < ?
+                LIMIT ?
+            )
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int retentionDays;
+    private final int batchSize;
+
+    public ProcessedMessageCleanupService(
+            JdbcTemplate jdbcTemplate,
+            @Value("${idempotency.retention-days:14}") int retentionDays,
+            @Value("${idempotency.cleanup.batch-size:10000}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.retentionDays = retentionDays;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${idempotency.cleanup.interval-hours:6}",
+            initialDelayString = "${idempotency.cleanup.interval-hours:6}", timeUnit = TimeUnit.HOURS)
+    void scheduledCleanUp() {
+        int deleted = cleanUp();
+        log.info("✓ Processed messages cleaned up: {} rows older than {} days deleted", deleted, retentionDays);
+    }
+
+    /**
+     * Delete expired processed_message rows
+     *
+     * @return Number of rows deleted
+     */
+    public int cleanUp() {
+        Timestamp cutoff = Timestamp.valueOf(LocalDateTime.now().minusDays(retentionDays));
+        int total = 0;
+        int deleted;
+        do {
+            deleted = jdbcTemplate.update(DELETE_EXPIRED_SQL, cutoff, batchSize);
+            total += deleted;
+        } while (deleted == batchSize && !Thread.currentThread().isInterrupted());
+        return total;
+    }
+}
@@ -0,0 +1,158 @@
+package javadev.project.consumer.service;
+
+import javadev.project.consumer.dto.ProductCatalogEntry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Bounded read-through cache of product catalog snapshots
+ * Entries are evicted least-recently-used once the cache is full and expire
+ * after a fixed time-to-live. Product changes invalidate entries through
+ * ProductChangeListener; the TTL bounds staleness if a notification is missed.
+ * Only id, sku, name and price are cached, never stock
+ * Products the loader does not find are cached as absent too, so a stream of
+ * messages for an unknown product does not query the database each time;
+ * inserting the product invalidates the absent entry
+ */
+@Component
+@Slf4j
+public class ProductCatalogCache {
+
+    private final long ttlNanos;
+    private final Map<Integer, CachedEntry> entries;
+    private final AtomicLong generation = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public ProductCatalogCache(
+            @Value("${product.cache.max-size:10000}") int maxSize,
+            @Value("${product.cache.ttl-seconds:300}") long ttlSeconds) {
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, CachedEntry> eldest) {
+                if (size() > maxSize) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Get snapshots for the given product IDs, loading missing ones in one call
+     * Products unknown to the loader are absent from the result
+     *
+     * @param productIds Product IDs
+     * @param loader     Loads snapshots for the IDs not in the cache
+     * @return Snapshots keyed by product ID
+     */
+    public Map<Integer, ProductCatalogEntry> getAll(
+            Collection<Integer> productIds,
+            Function<Collection<Integer>, Map<Integer, ProductCatalogEntry>> loader) {
+        Map<Integer, ProductCatalogEntry> result = new HashMap<>();
+        List<Integer> missing = new ArrayList<>();
+        int hitCount = 0;
+        long now = System.nanoTime();
+
+        synchronized (entries) {
+            for (Integer productId : productIds) {
+                CachedEntry cached = entries.get(productId);
+                if (cached == null) {
+                    missing.add(productId);
+                } else if (now - cached.loadedAt > ttlNanos) {
+                    entries.remove(productId);
+                    evictions.increment();
+                    missing.add(productId);
+                } else {
+                    hitCount++;
+                    if (cached.entry != null) {
+                        result.put(productId, cached.entry);
+                    }
+                }
+            }
+        }
+        hits.add(hitCount);
+        misses.add(missing.size());
+
+        if (missing.isEmpty()) {
+            return result;
+        }
+
+        // An invalidation while loading may have been for a row we just read;
+        // drop the loaded values rather than cache something stale
+        long loadGeneration = generation.get();
+        Map<Integer, ProductCatalogEntry> loaded = loader.apply(missing);
+        result.putAll(loaded);
+
+        synchronized (entries) {
+            if (generation.get() == loadGeneration) {
+                long loadedAt = System.nanoTime();
+                for (Integer productId : missing) {
+                    entries.put(productId, new CachedEntry(loaded.get(productId), loadedAt));
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Remove one product from the cache
+     *
+     * @param productId Product ID
+     */
+    public void invalidate(Integer productId) {
+        generation.incrementAndGet();
+        synchronized (entries) {
+            entries.remove(productId);
+        }
+        log.debug("Product catalog cache invalidated for product ID: {}", productId);
+    }
+
+    /**
+     * Remove every product from the cache
+     */
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        synchronized (entries) {
+            entries.clear();
+        }
+        log.info("Product catalog cache cleared");
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    // A null entry marks a product the loader did not find
+    private record CachedEntry(ProductCatalogEntry entry, long loadedAt) {
+    }
+}
@@ -0,0 +1,127 @@
+package javadev.project.consumer.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Listens for product change notifications from PostgreSQL
+ * The product_changed trigger in database-setup.sql issues NOTIFY with the
+ * product ID whenever sku, name or price change, or a product is deleted.
+ * Uses its own connection outside the pool, since a LISTEN connection is held
+ * for the lifetime of the application. After a lost connection the whole
+ * cache is cleared, because notifications sent meanwhile are gone.
+ */
+@Component
+@Slf4j
+public class ProductChangeListener implements DisposableBean {
+
+    static final String CHANNEL = "product_changed";
+
+    private final ProductCatalogCache productCatalogCache;
+    private final String url;
+    private final String username;
+    private final String password;
+    private final boolean enabled;
+    private final int pollTimeoutMs;
+    private final long reconnectBackoffMs;
+
+    private volatile boolean running;
+    private Thread listenerThread;
+
+    public ProductChangeListener(
+            ProductCatalogCache productCatalogCache,
+            @Value("${spring.datasource.url}") String url,
+            @Value("${spring.datasource.username:}") String username,
+            @Value("${spring.datasource.password:}") String password,
+            @Value("${product.cache.invalidation.enabled:true}") boolean enabled,
+            @Value("${product.cache.invalidation.poll-timeout-ms:1000}") int pollTimeoutMs,
+            @Value("${product.cache.invalidation.reconnect-backoff-ms:5000}") long reconnectBackoffMs) {
+        this.productCatalogCache = productCatalogCache;
+        this.url = url;
+        this.username = username;
+        this.password = password;
+        this.enabled = enabled;
+        this.pollTimeoutMs = pollTimeoutMs;
+        this.reconnectBackoffMs = reconnectBackoffMs;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled || !url.startsWith("jdbc:postgresql:")) {
+            log.info("Product change notifications disabled; catalog cache relies on TTL only");
+            return;
+        }
+
+        running = true;
+        listenerThread = Thread.ofPlatform()
+                .name("product-change-listener")
+                .daemon(true)
+                .start(this::run);
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        running = false;
+        if (listenerThread != null) {
+            listenerThread.interrupt();
+            listenerThread.join(pollTimeoutMs + 1000L);
+        }
+    }
+
+    private void run() {
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(url, username, password)) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                log.info("✓ Listening for product changes on channel '{}'", CHANNEL);
+
+                // Anything cached before LISTEN took effect may already be stale
+                productCatalogCache.invalidateAll();
+
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(pollTimeoutMs);
+                    if (notifications == null) {
+                        continue;
+                    }
+                    for (PGNotification notification : notifications) {
+                        handle(notification.getParameter());
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("⚠️ Product change listener disconnected: {}. Reconnecting in {} ms",
+                        e.getMessage(), reconnectBackoffMs);
+                productCatalogCache.invalidateAll();
+                try {
+                    Thread.sleep(reconnectBackoffMs);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void handle(String payload) {
+        try {
+            productCatalogCache.invalidate(Integer.valueOf(payload));
+        } catch (NumberFormatException e) {
+            log.warn("⚠️ Unrecognized product change payload '{}', clearing catalog cache", payload);
+            productCatalogCache.invalidateAll();
+        }
+    }
+}
@@ -1,17 +1,30 @@
 package javadev.project.consumer.service;
 
+import javadev.project.consumer.dto.ProductCatalogEntry;
+import javadev.project.consumer.dto.ProductStockView;
 import javadev.project.consumer.entity.product;
 import javadev.project.consumer.exception.BusinessException;
 import javadev.project.consumer.exception.ErrorCode;
+import javadev.project.consumer.exception.RejectedTransactionException;
 import javadev.project.consumer.repository.ProductRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
 /**
  * Service class for product-related business logic
  * Handles product retrieval, stock validation, and stock updates
+ * Catalog data (name, price) comes from ProductCatalogCache; stock is always
+ * read from and decremented in the database, or in StockLedger for the hot
+ * products it owns
  */
 @Service
 @RequiredArgsConstructor
@@ -19,6 +32,9 @@ import org.springframework.transaction.annotation.Transactional;
 public class ProductService {
 
         private final ProductRepository productRepository;
+        private final ProductCatalogCache productCatalogCache;
+        private final ObjectProvider<StockLedger> stockLedger;
+        private final LogSampler logSampler;
 
         /**
          * Get product by ID
@@ -36,49 +52,160 @@ public class ProductService {
                                                 .addDetail("productId", productId));
         }
 
+        /**
+         * Get catalog snapshots for the given product IDs
+         * Served from ProductCatalogCache; products not cached are loaded in a
+         * single query. Snapshots carry no stock.
+         * 
+         * @param productIds Product IDs
+         * @return Catalog snapshots keyed by ID
+         * @throws BusinessException if any product is not found
+         */
+        public Map<Integer, ProductCatalogEntry> getProductSnapshots(Collection<Integer> productIds) {
+                Map<Integer, ProductCatalogEntry> products = findProductSnapshots(productIds);
+
+                for (Integer productId : productIds) {
+                        if (!products.containsKey(productId)) {
+                                throw new RejectedTransactionException(
+                                                ErrorCode.PRODUCT_NOT_FOUND,
+                                                "Product not found",
+                                                "productId", productId);
+                        }
+                }
+                return products;
+        }
+
+        /**
+         * Find catalog snapshots for the given product IDs
+         * Same as getProductSnapshots, but unknown products are simply absent
+         * from the result. Unknown IDs are remembered by the cache, so
+         * repeated lookups do not query the database.
+         * 
+         * @param productIds Product IDs
+         * @return Catalog snapshots keyed by ID, for the products that exist
+         */
+        public Map<Integer, ProductCatalogEntry> findProductSnapshots(Collection<Integer> productIds) {
+                return productCatalogCache.getAll(productIds, this::loadProductSnapshots);
+        }
+
+        /**
+         * Get current stock for the given product IDs in a single query
+         * Products owned by the stock ledger are answered from the ledger; the
+         * rest are read from the database, never from the catalog cache
+         * 
+         * @param productIds Product IDs
+         * @return Current stock keyed by product ID
+         */
+        public Map<Integer, Integer> getCurrentStock(Collection<Integer> productIds) {
+                Map<Integer, Integer> stock = new HashMap<>();
+                StockLedger ledger = stockLedger.getIfAvailable();
+                List<Integer> databaseIds = new ArrayList<>(productIds.size());
+                for (Integer productId : productIds) {
+                        if (ledger != null && ledger.isManaged(productId)) {
+                                stock.put(productId, ledger.getAvailable(productId));
+                        } else {
+                                databaseIds.add(productId);
+                        }
+                }
+
+                if (!databaseIds.isEmpty()) {
+                        for (ProductStockView view : productRepository.findStockByIdIn(databaseIds)) {
+                                stock.put(view.getId(), view.getCurrentStock());
+                        }
+                }
+                return stock;
+        }
+
+        /**
+         * Whether the product's stock is owned by the in-memory stock ledger
+         * 
+         * @param productId Product ID
+         * @return true if stock changes for the product go through StockLedger
+         */
+        public boolean isStockLedgerManaged(Integer productId) {
+                StockLedger ledger = stockLedger.getIfAvailable();
+                return ledger != null && ledger.isManaged(productId);
+        }
+
+        /**
+         * Get a reference to a product for use as a foreign key, without loading it
+         * 
+         * @param productId Product ID
+         * @return Product reference
+         */
+        public product getProductReference(Integer productId) {
+                return productRepository.getReferenceById(productId);
+        }
+
         /**
          * Validate product stock availability
          * 
-         * @param product     Product entity
-         * @param requiredQty Required quantity
+         * @param product        Product catalog snapshot
+         * @param requiredQty    Required quantity
+         * @param availableStock Current stock read from the database
          * @throws BusinessException if stock is insufficient
          */
-        public void validateStock(product product, Integer requiredQty) {
-                if (product.getCurrentStock() < requiredQty) {
+        public void validateStock(ProductCatalogEntry product, Integer requiredQty, Integer availableStock) {
+                if (availableStock == null || availableStock < requiredQty) {
                         log.warn("Insufficient stock for product ID: {}. Required: {}, Available: {}",
-                                        product.getId(), requiredQty, product.getCurrentStock());
-                        throw new BusinessException(
+                                        product.getId(), requiredQty, availableStock);
+                        throw new RejectedTransactionException(
                                         ErrorCode.INSUFFICIENT_STOCK,
-                                        String.format("Insufficient stock for product ID %d. Required: %d, Available: %d",
-                                                        product.getId(), requiredQty, product.getCurrentStock()))
-                                        .addDetail("productId", product.getId())
-                                        .addDetail("productName", product.getProductName())
-                                        .addDetail("requiredQty", requiredQty)
-                                        .addDetail("availableStock", product.getCurrentStock());
+                                        "Insufficient stock",
+                                        "productId", product.getId(),
+                                        "productName", product.getProductName(),
+                                        "requiredQty", requiredQty,
+                                        "availableStock", availableStock);
+                }
+
+                // Warning if stock will be low after this sale; a low product
+                // alerts on every sale, so the line is sampled
+                int remainingStock = availableStock - requiredQty;
+                if (remainingStock < 10 && log.isWarnEnabled() && logSampler.sampleAlert()) {
+                        log.warn("Low stock alert for product ID: {} ({}). Stock after sale: {}",
+                                        product.getId(), product.getProductName(), remainingStock);
                 }
         }
 
         /**
          * Update product stock (reduce for sale)
+         * Uses a conditional UPDATE so the stock check and decrement are atomic
+         * in the database; concurrent consumers cannot oversell or lose updates.
+         * Products owned by the stock ledger are decremented in memory and
+         * flushed to the product row later
          * 
-         * @param product Product entity
+         * @param product Product catalog snapshot
          * @param qty     Quantity to reduce
+         * @throws BusinessException if stock is insufficient at the time of update
          */
         @Transactional
-        public void updateStock(product product, Integer qty) {
-                Integer currentStock = product.getCurrentStock();
-                Integer newStock = currentStock - qty;
-
-                product.setCurrentStock(newStock);
-                productRepository.save(product);
+        public void updateStock(ProductCatalogEntry product, Integer qty) {
+                StockLedger ledger = stockLedger.getIfAvailable();
+                boolean decremented = ledger != null && ledger.isManaged(product.getId())
+                                ? ledger.tryDecrement(product.getId(), qty)
+                                : productRepository.decrementStock(product.getId(), qty) > 0;
+                if (!decremented) {
+                        log.warn("Insufficient stock for product ID: {} at update. Required: {}",
+                                        product.getId(), qty);
+                        throw new RejectedTransactionException(
+                                        ErrorCode.INSUFFICIENT_STOCK,
+                                        "Insufficient stock",
+                                        "productId", product.getId(),
+                                        "productName", product.getProductName(),
+                                        "requiredQty", qty);
+                }
 
-                log.info("Updated stock for product ID: {}. Old stock: {}, New stock: {}",
-                                product.getId(), currentStock, newStock);
+                if (log.isDebugEnabled() && logSampler.sampleItem()) {
+                        log.debug("Updated stock for product ID: {}. Reduced by: {}", product.getId(), qty);
+                }
+        }
 
-                // Warning if stock is low
-                if (newStock < 10) {
-                        log.warn("Low stock alert for product ID: {} ({}). Current stock: {}",
-                                        product.getId(), product.getProductName(), newStock);
+        private Map<Integer, ProductCatalogEntry> loadProductSnapshots(Collection<Integer> productIds) {
+                log.debug("Loading product snapshots with IDs: {}", productIds);
+                Map<Integer, ProductCatalogEntry> products = new HashMap<>();
+                for (ProductCatalogEntry entry : productRepository.findCatalogEntriesByIdIn(productIds)) {
+                        products.put(entry.getId(), entry);
                 }
+                return products;
         }
 }
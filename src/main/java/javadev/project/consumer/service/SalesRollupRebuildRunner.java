@@ -0,0 +1,57 @@
+package javadev.project.consumer.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+/**
+ * One-off command that backfills daily_sales_rollup from existing transactions
+ * Stops the Kafka listeners, rebuilds the rollup and exits the application.
+ *
+ * Run with: java -jar consumer.jar --sales.rollup.rebuild=true
+ * [--sales.rollup.rebuild.from=2026-01-01] [--sales.rollup.rebuild.to=2026-01-31]
+ */
+@Component
+@ConditionalOnProperty(name = "sales.rollup.rebuild", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class SalesRollupRebuildRunner implements ApplicationRunner {
+
+    private final SalesRollupService salesRollupService;
+    private final KafkaListenerEndpointRegistry kafkaListenerEndpointRegistry;
+    private final ConfigurableApplicationContext applicationContext;
+
+    @Value("${sales.rollup.rebuild.from:}")
+    private String from;
+
+    @Value("${sales.rollup.rebuild.to:}")
+    private String to;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        kafkaListenerEndpointRegistry.stop();
+
+        int exitCode = 0;
+        try {
+            int rows = salesRollupService.rebuild(
+                    from.isEmpty() ? SalesRollupService.MIN_DATE : LocalDate.parse(from),
+                    to.isEmpty() ? SalesRollupService.MAX_DATE : LocalDate.parse(to));
+            log.info("✓ Daily sales rollup rebuild finished: {} rows", rows);
+        } catch (Exception e) {
+            log.error("✗ Daily sales rollup rebuild failed: {}", e.getMessage(), e);
+            exitCode = 1;
+        }
+
+        int code = exitCode;
+        System.exit(SpringApplication.exit(applicationContext, () -> code));
+    }
+}
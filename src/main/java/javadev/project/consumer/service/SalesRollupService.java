@@ -0,0 +1,294 @@
+package javadev.project.consumer.service;
+
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Service class for the daily sales rollup
+ * Keeps daily_sales_rollup (day × product: transaction count, units, revenue)
+ * and daily_sales_total (day: transaction count) up to date, and rebuilds
+ * both from transaction history for backfills
+ *
+ * Write-behind, like StockLedger: each database transaction only appends its
+ * aggregated deltas to daily_sales_rollup_delta, which takes no row locks
+ * shared with other transactions, so sales of the same hot product do not
+ * serialize on the rollup row. A periodic flush folds all committed delta
+ * rows into the rollup and the daily totals and deletes them in the same
+ * statement; rows committed while a flush runs are left for the next one.
+ * The rollup tables therefore lag sales by up to the flush interval; rollup
+ * plus delta rows is always the exact total, and v_daily_sales and
+ * v_daily_product_sales read both.
+ */
+@Service
+@Slf4j
+public class SalesRollupService {
+
+    private static final String APPEND_DELTA_SQL = """
+            INSERT INTO daily_sales_rollup_delta
+                (sale_date, product_id, transaction_count, units_sold, revenue)
+            SELECT d.sale_date, d.product_id, d.transaction_count, d.units_sold, d.revenue
+            FROM unnest(?::date[], ?::int[], ?::bigint[], ?::bigint[], ?::numeric[])
+                AS d (sale_date, product_id, transaction_count, units_sold, revenue)
+            """;
+
+    // Delta rows without a product carry the number of transactions per day
+    private static final String FLUSH_SQL = """
+            WITH flushed AS (
+                DELETE FROM daily_sales_rollup_delta
+                RETURNING sale_date, product_id, transaction_count, units_sold, revenue
+            ), product_rows AS (
+                INSERT INTO daily_sales_rollup AS r
+                    (sale_date, product_id, transaction_count, units_sold, revenue, updated_at)
+                SELECT sale_date, product_id, SUM(transaction_count), SUM(units_sold), SUM(revenue),
+                    CURRENT_TIMESTAMP
+                FROM flushed
+                WHERE product_id IS NOT NULL
+                GROUP BY sale_date, product_id
+                ORDER BY sale_date, product_id
+                ON CONFLICT (sale_date, product_id) DO UPDATE SET
+                    transaction_count = r.transaction_count + EXCLUDED.transaction_count,
+                    units_sold = r.units_sold + EXCLUDED.units_sold,
+                    revenue = r.revenue + EXCLUDED.revenue,
+                    updated_at = CURRENT_TIMESTAMP
+            )
+            INSERT INTO daily_sales_total AS t (sale_date, transaction_count, updated_at)
+            SELECT sale_date, SUM(transaction_count), CURRENT_TIMESTAMP
+            FROM flushed
+            WHERE product_id IS NULL
+            GROUP BY sale_date
+            ORDER BY sale_date
+            ON CONFLICT (sale_date) DO UPDATE SET
+                transaction_count = t.transaction_count + EXCLUDED.transaction_count,
+                updated_at = CURRENT_TIMESTAMP
+            """;
+
+    private static final String DELETE_DELTA_RANGE_SQL = """
+            DELETE FROM daily_sales_rollup_delta
+            WHERE sale_date BETWEEN ? AND ?
+            """;
+
+    private static final String DELETE_RANGE_SQL = """
+            DELETE FROM daily_sales_rollup
+            WHERE sale_date BETWEEN ? AND ?
+            """;
+
+    private static final String DELETE_TOTAL_RANGE_SQL = """
+            DELETE FROM daily_sales_total
+            WHERE sale_date BETWEEN ? AND ?
+            """;
+
+    private static final String REBUILD_RANGE_SQL = """
+            INSERT INTO daily_sales_rollup
+                (sale_date, product_id, transaction_count, units_sold, revenue, updated_at)
+            SELECT th.transaction_date, td.product_id, COUNT(DISTINCT th.id), SUM(td.qty), SUM(td.total_price),
+                CURRENT_TIMESTAMP
+            FROM transaction_history th
+            JOIN transaction_detail td ON td.transaction_id = th.id AND td.transaction_date = th.transaction_date
+            WHERE th.transaction_date BETWEEN ? AND ?
+            GROUP BY th.transaction_date, td.product_id
+            """;
+
+    private static final String REBUILD_TOTAL_RANGE_SQL = """
+            INSERT INTO daily_sales_total (sale_date, transaction_count, updated_at)
+            SELECT th.transaction_date, COUNT(*), CURRENT_TIMESTAMP
+            FROM transaction_history th
+            WHERE th.transaction_date BETWEEN ? AND ?
+            GROUP BY th.transaction_date
+            """;
+
+    // Full range of dates PostgreSQL can store, used to rebuild everything
+    static final LocalDate MIN_DATE = LocalDate.of(1, 1, 1);
+    static final LocalDate MAX_DATE = LocalDate.of(9999, 12, 31);
+
+    private final EntityManager entityManager;
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+
+    public SalesRollupService(
+            EntityManager entityManager,
+            JdbcTemplate jdbcTemplate,
+            @Value("${sales.rollup.enabled:true}") boolean enabled) {
+        this.entityManager = entityManager;
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+    }
+
+    /**
+     * Create an empty buffer for the sales of one database transaction
+     *
+     * @return Rollup buffer
+     */
+    public Buffer newBuffer() {
+        return new Buffer();
+    }
+
+    /**
+     * Append buffered sales as delta rows in the current database transaction
+     * One multi-row INSERT; the rollup itself is updated by the next flush
+     *
+     * @param buffer Buffered sales
+     */
+    public void apply(Buffer buffer) {
+        if (buffer.rows.isEmpty()) {
+            return;
+        }
+
+        int size = buffer.rows.size() + buffer.transactions.size();
+        Date[] dates = new Date[size];
+        Integer[] productIds = new Integer[size];
+        Long[] transactionCounts = new Long[size];
+        Long[] unitsSold = new Long[size];
+        BigDecimal[] revenues = new BigDecimal[size];
+
+        int i = 0;
+        for (Map.Entry<RollupKey, RollupDelta> entry : buffer.rows.entrySet()) {
+            dates[i] = Date.valueOf(entry.getKey().saleDate());
+            productIds[i] = entry.getKey().productId();
+            transactionCounts[i] = entry.getValue().transactionCount;
+            unitsSold[i] = entry.getValue().unitsSold;
+            revenues[i] = entry.getValue().revenue;
+            i++;
+        }
+        for (Map.Entry<LocalDate, Long> entry : buffer.transactions.entrySet()) {
+            dates[i] = Date.valueOf(entry.getKey());
+            transactionCounts[i] = entry.getValue();
+            unitsSold[i] = 0L;
+            revenues[i] = BigDecimal.ZERO;
+            i++;
+        }
+
+        entityManager.unwrap(Session.class).doWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(APPEND_DELTA_SQL)) {
+                statement.setArray(1, connection.createArrayOf("date", dates));
+                statement.setArray(2, connection.createArrayOf("integer", productIds));
+                statement.setArray(3, connection.createArrayOf("bigint", transactionCounts));
+                statement.setArray(4, connection.createArrayOf("bigint", unitsSold));
+                statement.setArray(5, connection.createArrayOf("numeric", revenues));
+                statement.executeUpdate();
+            }
+        });
+        log.debug("Daily sales rollup delta appended: {} rows", size);
+    }
+
+    /**
+     * Fold all committed delta rows into the rollup and the daily totals
+     *
+     * @return Number of daily total rows written
+     */
+    public int flush() {
+        int updated = jdbcTemplate.update(FLUSH_SQL);
+        if (updated > 0) {
+            log.debug("Daily sales rollup flushed for {} days", updated);
+        }
+        return updated;
+    }
+
+    /**
+     * A failed flush leaves the delta rows in place for the next one
+     */
+    @Scheduled(fixedDelayString = "${sales.rollup.flush-interval-ms:1000}",
+            initialDelayString = "${sales.rollup.flush-interval-ms:1000}")
+    void scheduledFlush() {
+        if (enabled) {
+            flush();
+        }
+    }
+
+    /**
+     * Rebuild the rollup and daily totals for a date range from transaction
+     * history and detail
+     * Replaces existing rollup, total and delta rows in the range in one
+     * database transaction. Consumption should be stopped while this runs.
+     *
+     * @param startDate First sale date, inclusive
+     * @param endDate   Last sale date, inclusive
+     * @return Number of rollup rows written
+     */
+    @Transactional(rollbackFor = Exception.class)
+    public int rebuild(LocalDate startDate, LocalDate endDate) {
+        int[] written = new int[1];
+        entityManager.unwrap(Session.class).doWork(connection -> {
+            // Deltas in the range are already part of transaction history
+            updateRange(connection, DELETE_DELTA_RANGE_SQL, startDate, endDate);
+            int deleted = updateRange(connection, DELETE_RANGE_SQL, startDate, endDate);
+            updateRange(connection, DELETE_TOTAL_RANGE_SQL, startDate, endDate);
+
+            written[0] = updateRange(connection, REBUILD_RANGE_SQL, startDate, endDate);
+            int days = updateRange(connection, REBUILD_TOTAL_RANGE_SQL, startDate, endDate);
+            log.info("Daily sales rollup rebuilt for {} to {}: removed {} rows, wrote {} rows for {} days",
+                    startDate, endDate, deleted, written[0], days);
+        });
+        return written[0];
+    }
+
+    private static int updateRange(Connection connection, String sql, LocalDate startDate, LocalDate endDate)
+            throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setDate(1, Date.valueOf(startDate));
+            statement.setDate(2, Date.valueOf(endDate));
+            return statement.executeUpdate();
+        }
+    }
+
+    /**
+     * Sales of one database transaction, aggregated per day and product
+     */
+    public static final class Buffer {
+
+        private final Map<RollupKey, RollupDelta> rows = new TreeMap<>(
+                Comparator.comparing(RollupKey::saleDate).thenComparing(RollupKey::productId));
+        private final Map<LocalDate, Long> transactions = new TreeMap<>();
+
+        private Buffer() {
+        }
+
+        /**
+         * Count one transaction for its day
+         *
+         * @param saleDate Transaction date
+         */
+        public void addTransaction(LocalDate saleDate) {
+            transactions.merge(saleDate, 1L, Long::sum);
+        }
+
+        /**
+         * Add one product line of one transaction
+         *
+         * @param saleDate  Transaction date
+         * @param productId Product ID
+         * @param qty       Quantity sold
+         * @param revenue   Line total price
+         */
+        public void add(LocalDate saleDate, Integer productId, int qty, BigDecimal revenue) {
+            RollupDelta delta = rows.computeIfAbsent(new RollupKey(saleDate, productId), key -> new RollupDelta());
+            delta.transactionCount++;
+            delta.unitsSold += qty;
+            delta.revenue = delta.revenue.add(revenue);
+        }
+    }
+
+    private record RollupKey(LocalDate saleDate, Integer productId) {
+    }
+
+    private static final class RollupDelta {
+        private long transactionCount;
+        private long unitsSold;
+        private BigDecimal revenue = BigDecimal.ZERO;
+    }
+}
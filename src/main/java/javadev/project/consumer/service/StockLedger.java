@@ -0,0 +1,190 @@
+package javadev.project.consumer.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.PreparedStatement;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * In-memory stock ledger for hot products owned by this node
+ * Availability checks and decrements for owned products happen in memory
+ * instead of on the product row. Each sale still writes its stock_log row in
+ * the sale's transaction, flagged ledger_pending. A periodic flush applies all
+ * committed pending rows to product.current_stock in one statement and clears
+ * the flag in the same statement, so product plus pending stock_log rows is
+ * always the exact stock; the ledger is rebuilt from that on startup.
+ *
+ * Ownership must be exclusive: no other node may sell or restock an owned
+ * product while this ledger is running. After changing the stock of an owned
+ * product outside this application, call rebuild() while consumption is
+ * paused, since in-flight sales are not yet visible in stock_log.
+ *
+ * Reads and decrements take no lock: the owned products and their slots are
+ * fixed per rebuild and replaced wholesale, and each product's availability
+ * is a CAS-updated slot in an atomic array.
+ */
+@Component
+@ConditionalOnProperty(name = "stock.ledger.enabled", havingValue = "true")
+@Slf4j
+public class StockLedger {
+
+    private static final String FLUSH_SQL = """
+            WITH flushed AS (
+                UPDATE stock_log SET ledger_pending = FALSE
+                WHERE ledger_pending
+                RETURNING product_id, quantity_change
+            ), delta AS (
+                SELECT product_id, SUM(quantity_change) AS quantity_change
+                FROM flushed
+                GROUP BY product_id
+            )
+            UPDATE product p
+            SET current_stock = p.current_stock + d.quantity_change, updated_at = CURRENT_TIMESTAMP
+            FROM delta d
+            WHERE p.id = d.product_id
+            """;
+
+    private static final String REBUILD_SQL = """
+            SELECT p.id, p.current_stock + COALESCE(SUM(sl.quantity_change), 0) AS available
+            FROM product p
+            LEFT JOIN stock_log sl ON sl.product_id = p.id AND sl.ledger_pending
+            WHERE p.id = ANY (?)
+            GROUP BY p.id, p.current_stock
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Integer[] productIds;
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+    public StockLedger(
+            JdbcTemplate jdbcTemplate,
+            @Value("${stock.ledger.product-ids:}") String productIds) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.productIds = Arrays.stream(productIds.split(","))
+                .map(String::trim)
+                .filter(id -> !id.isEmpty())
+                .map(Integer::valueOf)
+                .toArray(Integer[]::new);
+    }
+
+    /**
+     * Reload availability from product plus unflushed stock_log rows
+     * The query runs against a fresh snapshot that replaces the current one
+     * only once it is complete
+     */
+    @PostConstruct
+    public void rebuild() {
+        IntIntOpenHashMap slots = new IntIntOpenHashMap(productIds.length);
+        int[] values = new int[productIds.length];
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(REBUILD_SQL);
+            statement.setArray(1, connection.createArrayOf("integer", productIds));
+            return statement;
+        }, (RowCallbackHandler) resultSet -> {
+            int slot = slots.size();
+            slots.put(resultSet.getInt(1), slot);
+            values[slot] = resultSet.getInt(2);
+        });
+        snapshot = new Snapshot(slots, new AtomicIntegerArray(Arrays.copyOf(values, slots.size())));
+
+        if (slots.size() < productIds.length) {
+            log.warn("⚠️ Stock ledger configured for {} products but only {} exist; missing ones use the database",
+                    productIds.length, slots.size());
+        }
+        log.info("✓ Stock ledger rebuilt for {} products", slots.size());
+    }
+
+    /**
+     * Whether stock for the product is owned by this ledger
+     *
+     * @param productId Product ID
+     * @return true if the ledger decides availability for the product
+     */
+    public boolean isManaged(Integer productId) {
+        return snapshot.slots.containsKey(productId);
+    }
+
+    /**
+     * Available stock for an owned product
+     *
+     * @param productId Product ID
+     * @return Available stock including uncommitted decrements
+     */
+    public int getAvailable(Integer productId) {
+        Snapshot current = snapshot;
+        int slot = current.slots.get(productId, -1);
+        return slot < 0 ? 0 : current.available.get(slot);
+    }
+
+    /**
+     * Decrement stock for an owned product if enough is available
+     * The decrement is reversed if the surrounding transaction rolls back
+     *
+     * @param productId Product ID
+     * @param qty       Quantity to reduce
+     * @return false if stock is insufficient
+     */
+    public boolean tryDecrement(Integer productId, int qty) {
+        Snapshot current = snapshot;
+        int slot = current.slots.get(productId, -1);
+        if (slot < 0) {
+            return false;
+        }
+
+        int stock;
+        do {
+            stock = current.available.get(slot);
+            if (stock < qty) {
+                return false;
+            }
+        } while (!current.available.compareAndSet(slot, stock, stock - qty));
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        // A rebuild since the decrement has already dropped it with the old snapshot
+                        current.available.addAndGet(slot, qty);
+                    }
+                }
+            });
+        }
+        return true;
+    }
+
+    /**
+     * Apply all committed pending stock_log rows to product.current_stock
+     * A failed flush leaves the rows flagged for the next one
+     *
+     * @return Number of product rows updated
+     */
+    @Scheduled(fixedDelayString = "${stock.ledger.flush-interval-ms:1000}",
+            initialDelayString = "${stock.ledger.flush-interval-ms:1000}")
+    public int flush() {
+        int updated = jdbcTemplate.update(FLUSH_SQL);
+        if (updated > 0) {
+            log.debug("Stock ledger flushed to {} products", updated);
+        }
+        return updated;
+    }
+
+    /**
+     * Owned products mapped to their slot in the availability array
+     * The slot map is never modified after a rebuild publishes it
+     */
+    private record Snapshot(IntIntOpenHashMap slots, AtomicIntegerArray available) {
+
+        static final Snapshot EMPTY = new Snapshot(new IntIntOpenHashMap(0), new AtomicIntegerArray(0));
+    }
+}
@@ -0,0 +1,54 @@
+package javadev.project.consumer.service;
+
+import javadev.project.consumer.dto.StockReconciliationReport;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.stereotype.Component;
+
+/**
+ * One-off command that reconciles product stock with the stock log
+ * Stops the Kafka listeners, reconciles (optionally correcting drift) and
+ * exits the application. Exits with 2 if drift was found and not corrected.
+ *
+ * Run with: java -jar consumer.jar --stock.reconciliation.run=true
+ * [--stock.reconciliation.auto-correct=true]
+ */
+@Component
+@ConditionalOnProperty(name = "stock.reconciliation.run", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class StockReconciliationRunner implements ApplicationRunner {
+
+    private final StockReconciliationService stockReconciliationService;
+    private final KafkaListenerEndpointRegistry kafkaListenerEndpointRegistry;
+    private final ConfigurableApplicationContext applicationContext;
+
+    @Value("${stock.reconciliation.auto-correct:false}")
+    private boolean autoCorrect;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        kafkaListenerEndpointRegistry.stop();
+
+        int exitCode = 0;
+        try {
+            StockReconciliationReport report = stockReconciliationService.reconcile(autoCorrect);
+            if (report.getDrifts().size() > report.getCorrected()) {
+                exitCode = 2;
+            }
+        } catch (Exception e) {
+            log.error("✗ Stock reconciliation failed: {}", e.getMessage(), e);
+            exitCode = 1;
+        }
+
+        int code = exitCode;
+        System.exit(SpringApplication.exit(applicationContext, () -> code));
+    }
+}
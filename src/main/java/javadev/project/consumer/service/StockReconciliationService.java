@@ -0,0 +1,220 @@
+package javadev.project.consumer.service;
+
+import javadev.project.consumer.dto.StockReconciliationReport;
+import javadev.project.consumer.dto.StockReconciliationReport.Drift;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Service class for reconciling product stock with the stock log
+ * A product's current stock must equal the sum of its applied stock log
+ * movements (opening balance included); rows still pending in the stock
+ * ledger are counted as scanned but not expected in product yet.
+ *
+ * The log only explains a product's stock from its opening balance on: an
+ * INITIAL row (database-setup.sql inserts one per existing product) or a
+ * CARRY_FORWARD row written when an old partition is detached. Drift of a
+ * product without either is reported but never auto-corrected, since setting
+ * its stock to the partial log sum would wipe out the untracked history.
+ *
+ * The product ID space is split into chunks that are reconciled in parallel
+ * on a fork-join pool, one aggregate query per chunk. Keep the parallelism
+ * below the connection pool size.
+ */
+@Service
+@Slf4j
+public class StockReconciliationService {
+
+    private static final String ID_RANGE_SQL = "SELECT MIN(id), MAX(id) FROM product";
+
+    private static final String CHUNK_SQL = """
+            SELECT p.id, p.current_stock, COALESCE(l.logged, 0), COALESCE(l.row_count, 0),
+                COALESCE(l.baseline_rows, 0)
+            FROM product p
+            LEFT JOIN (
+                SELECT product_id,
+                    SUM(quantity_change) FILTER (WHERE NOT ledger_pending) AS logged,
+                    COUNT(*) AS row_count,
+                    COUNT(*) FILTER (WHERE log_type IN ('INITIAL', 'CARRY_FORWARD')) AS baseline_rows
+                FROM stock_log
+                WHERE product_id BETWEEN ? AND ?
+                GROUP BY product_id
+            ) l ON l.product_id = p.id
+            WHERE p.id BETWEEN ? AND ?
+            """;
+
+    private static final String CORRECT_SQL = """
+            UPDATE product p SET
+                current_stock = (
+                    SELECT COALESCE(SUM(sl.quantity_change), 0)
+                    FROM stock_log sl
+                    WHERE sl.product_id = p.id AND NOT sl.ledger_pending
+                ),
+                updated_at = CURRENT_TIMESTAMP
+            WHERE p.id = ANY (?)
+            """;
+
+    private static final int MAX_LOGGED_DRIFTS = 20;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectProvider<StockLedger> stockLedgerProvider;
+    private final int chunkSize;
+    private final int parallelism;
+
+    public StockReconciliationService(
+            JdbcTemplate jdbcTemplate,
+            ObjectProvider<StockLedger> stockLedgerProvider,
+            @Value("${stock.reconciliation.chunk-size:5000}") int chunkSize,
+            @Value("${stock.reconciliation.parallelism:4}") int parallelism) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.stockLedgerProvider = stockLedgerProvider;
+        this.chunkSize = chunkSize;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Reconcile every product with its stock log
+     * Consumption should be stopped while this runs, otherwise corrections
+     * may race with stock updates.
+     *
+     * @param autoCorrect Set drifted products' stock to the logged stock, for
+     *                    products with an opening balance
+     * @return Reconciliation report
+     */
+    public StockReconciliationReport reconcile(boolean autoCorrect) {
+        long start = System.nanoTime();
+        int[] idRange = jdbcTemplate.queryForObject(ID_RANGE_SQL, (resultSet, rowNum) -> {
+            int minId = resultSet.getInt(1);
+            return resultSet.wasNull() ? null : new int[] { minId, resultSet.getInt(2) };
+        });
+
+        ChunkResult result = new ChunkResult();
+        if (idRange != null) {
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+            try {
+                result = pool.invoke(new ChunkTask(idRange[0], idRange[1]));
+            } finally {
+                pool.shutdown();
+            }
+        }
+        result.drifts.sort(Comparator.comparing(Drift::getProductId));
+
+        int corrected = 0;
+        if (autoCorrect && !result.drifts.isEmpty()) {
+            corrected = correct(result.drifts);
+        }
+
+        StockReconciliationReport report = new StockReconciliationReport(
+                result.products, result.logRows, result.drifts, corrected, System.nanoTime() - start);
+        logReport(report);
+        return report;
+    }
+
+    private int correct(List<Drift> drifts) {
+        Integer[] ids = drifts.stream().filter(Drift::isBaseline).map(Drift::getProductId).toArray(Integer[]::new);
+        if (ids.length < drifts.size()) {
+            log.warn("⚠️ Not correcting {} products without an opening balance (INITIAL stock_log row)",
+                    drifts.size() - ids.length);
+        }
+        if (ids.length == 0) {
+            return 0;
+        }
+        Integer corrected = jdbcTemplate.execute((ConnectionCallback<Integer>) connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(CORRECT_SQL)) {
+                statement.setArray(1, connection.createArrayOf("integer", ids));
+                return statement.executeUpdate();
+            }
+        });
+
+        // Owned products keep their available stock in memory
+        StockLedger stockLedger = stockLedgerProvider.getIfAvailable();
+        if (stockLedger != null) {
+            stockLedger.rebuild();
+        }
+        return corrected != null ? corrected : 0;
+    }
+
+    private void logReport(StockReconciliationReport report) {
+        log.info("{} Stock reconciliation: {} products, {} log rows in {} ms ({} rows/s), {} drifted, {} corrected",
+                report.getDrifts().isEmpty() ? "✓" : "⚠️",
+                report.getProductsChecked(),
+                report.getLogRowsScanned(),
+                report.getElapsedNanos() / 1_000_000,
+                String.format("%.0f", report.rowsPerSecond()),
+                report.getDrifts().size(),
+                report.getCorrected());
+        report.getDrifts().stream().limit(MAX_LOGGED_DRIFTS).forEach(drift ->
+                log.warn("   Product {}: current stock {}, logged stock {}, drift {}{}",
+                        drift.getProductId(), drift.getCurrentStock(), drift.getLoggedStock(), drift.getDrift(),
+                        drift.isBaseline() ? "" : ", no opening balance"));
+        if (report.getDrifts().size() > MAX_LOGGED_DRIFTS) {
+            log.warn("   ... and {} more", report.getDrifts().size() - MAX_LOGGED_DRIFTS);
+        }
+    }
+
+    /**
+     * Reconciles an inclusive product ID range, splitting it until it fits in
+     * one chunk
+     */
+    private final class ChunkTask extends RecursiveTask<ChunkResult> {
+
+        private final int fromId;
+        private final int toId;
+
+        private ChunkTask(int fromId, int toId) {
+            this.fromId = fromId;
+            this.toId = toId;
+        }
+
+        @Override
+        protected ChunkResult compute() {
+            if ((long) toId - fromId < chunkSize) {
+                return reconcileChunk();
+            }
+            int middle = (int) (((long) fromId + toId) / 2);
+            ChunkTask left = new ChunkTask(fromId, middle);
+            ChunkTask right = new ChunkTask(middle + 1, toId);
+            left.fork();
+            ChunkResult result = right.compute();
+            return result.merge(left.join());
+        }
+
+        private ChunkResult reconcileChunk() {
+            ChunkResult result = new ChunkResult();
+            jdbcTemplate.query(CHUNK_SQL, resultSet -> {
+                int currentStock = resultSet.getInt(2);
+                long logged = resultSet.getLong(3);
+                result.products++;
+                result.logRows += resultSet.getLong(4);
+                if (currentStock != logged) {
+                    result.drifts.add(new Drift(resultSet.getInt(1), currentStock, logged, resultSet.getLong(5) > 0));
+                }
+            }, fromId, toId, fromId, toId);
+            return result;
+        }
+    }
+
+    private static final class ChunkResult {
+        private long products;
+        private long logRows;
+        private final List<Drift> drifts = new ArrayList<>();
+
+        private ChunkResult merge(ChunkResult other) {
+            products += other.products;
+            logRows += other.logRows;
+            drifts.addAll(other.drifts);
+            return this;
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package javadev.project.consumer.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import java.sql.SQLException;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Executes a transactional operation and retries it on deadlock or
+ * serialization failure
+ * Must wrap the transactional call from outside, so every attempt runs in a
+ * fresh database transaction
+ */
+@Component
+@Slf4j
+public class TransactionRetryExecutor {
+
+    // PostgreSQL serialization_failure and deadlock_detected
+    private static final Set<String> RETRYABLE_SQL_STATES = Set.of("40001", "40P01");
+
+    @Value("${transaction.retry.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${transaction.retry.backoff-ms:50}")
+    private long backoffMs;
+
+    /**
+     * Execute operation, retrying on lock conflicts with exponential backoff
+     *
+     * @param operation Transactional operation to execute
+     * @param <T>       Result type
+     * @return Result of the operation
+     */
+    public <T> T execute(Supplier<T> operation) {
+        int attempt = 1;
+        while (true) {
+            try {
+                return operation.get();
+            } catch (RuntimeException e) {
+                if (attempt >= maxAttempts || !isRetryable(e)) {
+                    throw e;
+                }
+                long delay = backoffMs << (attempt - 1);
+                log.warn("Lock conflict on attempt {}/{}, retrying in {}ms: {}",
+                        attempt, maxAttempts, delay, e.getMessage());
+                sleep(delay);
+                attempt++;
+            }
+        }
+    }
+
+    /**
+     * Check whether an exception, or any of its causes, is a deadlock or
+     * serialization failure
+     */
+    static boolean isRetryable(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof PessimisticLockingFailureException) {
+                return true;
+            }
+            if (t instanceof SQLException sqlException
+                    && RETRYABLE_SQL_STATES.contains(sqlException.getSQLState())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting to retry", e);
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package javadev.project.consumer.service;
 
+import javadev.project.consumer.dto.BatchResultDTO;
+import javadev.project.consumer.dto.ProductCatalogEntry;
 import javadev.project.consumer.dto.TransactionItemDTO;
 import javadev.project.consumer.dto.TransactionRequestDTO;
 import javadev.project.consumer.entity.product;
@@ -8,18 +10,25 @@ import javadev.project.consumer.entity.transactionDetail;
 import javadev.project.consumer.entity.transactionHistory;
 import javadev.project.consumer.exception.BusinessException;
 import javadev.project.consumer.exception.ErrorCode;
+import javadev.project.consumer.exception.RejectedTransactionException;
+import javadev.project.consumer.repository.CopyBulkInsertRepository;
 import javadev.project.consumer.repository.StockLogRepository;
 import javadev.project.consumer.repository.TransactionDetailRepository;
 import javadev.project.consumer.repository.TransactionHistoryRepository;
+import javadev.project.consumer.service.ConsumerMetrics.Stage;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
-import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 
 /**
  * Service class for transaction processing business logic
@@ -36,58 +45,81 @@ public class TransactionService {
     private final TransactionHistoryRepository transactionHistoryRepository;
     private final TransactionDetailRepository transactionDetailRepository;
     private final StockLogRepository stockLogRepository;
+    private final IdempotencyService idempotencyService;
+    private final CopyBulkInsertRepository copyBulkInsertRepository;
+    private final SalesRollupService salesRollupService;
+    private final ConsumerMetrics consumerMetrics;
+    private final LogSampler logSampler;
+
+    // Detail plus stock log rows above which they are written with COPY
+    @Value("${transaction.bulk.copy-threshold:1000}")
+    private int copyThreshold;
+
+    // Merge SALE stock logs per product within one database transaction
+    @Value("${stock.log.coalesce.enabled:false}")
+    private boolean coalesceStockLogs;
+
+    // Append daily sales rollup deltas in the same database transaction
+    @Value("${sales.rollup.enabled:true}")
+    private boolean salesRollupEnabled;
 
     private static final String LOG_TYPE_SALE = "SALE";
-    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
 
     /**
      * Process transaction from Kafka message
      * This method handles the complete transaction flow:
-     * 1. Validate products and stock
+     * 1. Coalesce repeated product lines and validate products and stock
      * 2. Create transaction history
-     * 3. Process each item (insert detail, stock log, update product)
-     * 4. Update total price in transaction history
+     * 3. Process each distinct product (insert detail and stock log)
+     * 4. Decrement stock in ascending product ID order, then write deferred
+     *    rows and the daily sales rollup
      *
      * @param dto Transaction request DTO from Kafka
      * @return Created transaction history
-     * @throws BusinessException if any error occurs during processing
+     * @throws BusinessException if any error occurs during processing, with
+     *                           error code IDM001 if the message was already
+     *                           processed
      */
     @Transactional(rollbackFor = Exception.class)
     public transactionHistory processTransaction(TransactionRequestDTO dto) {
         try {
-            log.info("Processing transaction: date={}, items count={}",
+            log.debug("Processing transaction: date={}, items count={}",
                     dto.getTransactionDate(), dto.getItems().size());
 
-            // Step 1: Parse and validate transaction date
-            LocalDate transactionDate = parseTransactionDate(dto.getTransactionDate());
-
-            // Step 2: Validate all products and stock before processing
-            validateTransactionItems(dto);
-
-            // Step 3: Create transaction history
-            transactionHistory transaction = createTransactionHistory(transactionDate);
-            log.info("Transaction history created with ID: {}", transaction.getId());
-
-            // Step 4: Process each item
-            BigDecimal totalPrice = BigDecimal.ZERO;
-            for (TransactionItemDTO item : dto.getItems()) {
-                BigDecimal itemTotalPrice = processTransactionItem(transaction, item);
-                totalPrice = totalPrice.add(itemTotalPrice);
-            }
-
-            // Step 5: Update total price in transaction history
-            transaction.setTotalPrice(totalPrice);
-            transactionHistoryRepository.save(transaction);
-
-            log.info("Transaction processed successfully. ID: {}, Total Price: {}",
-                    transaction.getId(), totalPrice);
-
+            // Step 1: Validate transaction date (parsed once by the deserializer)
+            long validateStart = System.nanoTime();
+            LocalDate transactionDate = requireTransactionDate(dto.getTransactionDate());
+
+            // Step 2: Coalesce repeated products, then validate products and stock
+            List<TransactionItemDTO> items = coalesceItems(dto.getItems());
+            PendingRows pendingRows = newPendingRows(items.size());
+            Map<Integer, ProductCatalogEntry> products = validateTransactionItems(items, pendingRows);
+            consumerMetrics.recordStage(Stage.VALIDATE, System.nanoTime() - validateStart);
+            consumerMetrics.recordItems(dto.getItems().size());
+
+            // Step 3-5: Create history, process items, decrement stock
+            long persistStart = System.nanoTime();
+            transactionHistory transaction = persistTransaction(
+                    dto.getMessageId(), transactionDate, items, products, pendingRows);
+            writePendingRows(pendingRows);
+            // Flush here rather than at commit, so a duplicate message ID is
+            // reported below instead of as a commit failure
+            transactionHistoryRepository.flush();
+            consumerMetrics.recordStage(Stage.PERSIST, System.nanoTime() - persistStart);
+            consumerMetrics.timeCommit();
             return transaction;
 
         } catch (BusinessException e) {
             // Re-throw BusinessException as-is
             throw e;
         } catch (Exception e) {
+            if (IdempotencyService.isDuplicateMessageViolation(e)) {
+                // A redelivery the idempotency filter did not know about
+                throw new RejectedTransactionException(
+                        ErrorCode.DUPLICATE_MESSAGE,
+                        "Message already processed",
+                        "messageId", dto.getMessageId());
+            }
             log.error("Error processing transaction: {}", e.getMessage(), e);
             throw new BusinessException(
                     ErrorCode.TRANSACTION_PROCESSING_ERROR,
@@ -98,64 +130,234 @@ public class TransactionService {
     }
 
     /**
-     * Parse transaction date from string format to LocalDate
-     * Expects date in yyyy-MM-dd format
+     * Process a batch of transactions from one Kafka poll in a single database
+     * transaction
+     * Each request is validated before any of its rows are written; a request
+     * that fails validation is recorded as a failure and skipped, while the rest
+     * of the batch continues. Stock decrements of the whole batch are summed per
+     * product and applied at the end in ascending product ID order, so two
+     * batches sharing products always lock them in the same order; later
+     * requests are validated against stock minus the decrements still pending.
+     * Any error while writing rolls back the whole batch. Large batches write
+     * their detail and stock log rows with COPY at the end of the batch. With
+     * stock log coalescing on, each product gets one SALE stock log row for
+     * the whole batch.
      *
-     * @param dateString Date string in yyyy-MM-dd format
-     * @return LocalDate object
-     * @throws BusinessException if date format is invalid with error code TXN002
+     * @param requests Transaction request DTOs in poll order
+     * @return Batch result with processed transactions, rejected requests and
+     *         elapsed time
+     * @throws BusinessException if persisting any request fails
      */
-    private LocalDate parseTransactionDate(String dateString) {
+    @Transactional(rollbackFor = Exception.class)
+    public BatchResultDTO processBatch(List<TransactionRequestDTO> requests) {
+        long start = System.nanoTime();
+        BatchResultDTO result = new BatchResultDTO();
+
         try {
-            return LocalDate.parse(dateString, DATE_FORMATTER);
-        } catch (DateTimeParseException e) {
-            log.error("Invalid date format: {}. Expected format: yyyy-MM-dd", dateString);
+            int itemCount = requests.stream()
+                    .mapToInt(dto -> dto.getItems() == null ? 0 : dto.getItems().size())
+                    .sum();
+            PendingRows pendingRows = newPendingRows(itemCount);
+            long persistNanos = 0;
+
+            for (int i = 0; i < requests.size(); i++) {
+                TransactionRequestDTO dto = requests.get(i);
+
+                LocalDate transactionDate;
+                List<TransactionItemDTO> items;
+                Map<Integer, ProductCatalogEntry> products;
+                long validateStart = System.nanoTime();
+                try {
+                    transactionDate = requireTransactionDate(dto.getTransactionDate());
+                    items = coalesceItems(dto.getItems());
+                    products = validateTransactionItems(items, pendingRows);
+                } catch (BusinessException e) {
+                    result.getFailures().put(i, e);
+                    continue;
+                }
+                long persistStart = System.nanoTime();
+                consumerMetrics.recordStage(Stage.VALIDATE, persistStart - validateStart);
+                consumerMetrics.recordItems(dto.getItems().size());
+
+                result.getProcessed().add(
+                        persistTransaction(dto.getMessageId(), transactionDate, items, products, pendingRows));
+                persistNanos += System.nanoTime() - persistStart;
+            }
+            long writeStart = System.nanoTime();
+            writePendingRows(pendingRows);
+            // One persist sample per database transaction, as in processTransaction
+            consumerMetrics.recordStage(Stage.PERSIST, persistNanos + System.nanoTime() - writeStart);
+            consumerMetrics.timeCommit();
+        } catch (BusinessException e) {
+            throw e;
+        } catch (Exception e) {
+            log.error("Error processing transaction batch: {}", e.getMessage(), e);
             throw new BusinessException(
+                    ErrorCode.TRANSACTION_PROCESSING_ERROR,
+                    "Failed to process transaction batch: " + e.getMessage(),
+                    e).addDetail("batchSize", requests.size());
+        }
+
+        result.setElapsedNanos(System.nanoTime() - start);
+        return result;
+    }
+
+    /**
+     * Persist a validated transaction
+     * Creates transaction history with its total price, processes each item
+     * and records the message as processed. The total is known up front from
+     * the validated prices, so the history row is inserted once and never
+     * updated; an UPDATE by ID alone could not be pruned to one partition.
+     *
+     * @param messageId       Message ID for idempotency, or null
+     * @param transactionDate Parsed transaction date
+     * @param items           Coalesced items, one per distinct product
+     * @param products        Validated product snapshots keyed by ID
+     * @param pendingRows     Detail and stock log rows deferred to the end of
+     *                        the database transaction
+     * @return Saved transaction history with total price
+     */
+    private transactionHistory persistTransaction(
+            String messageId,
+            LocalDate transactionDate,
+            List<TransactionItemDTO> items,
+            Map<Integer, ProductCatalogEntry> products,
+            PendingRows pendingRows) {
+        // Create transaction history
+        BigDecimal totalPrice = calculateTotalPrice(items, products);
+        transactionHistory transaction = createTransactionHistory(transactionDate, totalPrice);
+        log.debug("Transaction history created with ID: {}", transaction.getId());
+        if (pendingRows.rollup != null) {
+            pendingRows.rollup.addTransaction(transactionDate);
+        }
+
+        // Stock is decremented later, in product ID order across the database
+        // transaction, so the item order here does not matter for locking
+        for (TransactionItemDTO item : items) {
+            processTransactionItem(transaction, products.get(item.getProductId()), item, pendingRows);
+        }
+
+        // Record message in the same database transaction
+        idempotencyService.recordProcessed(messageId, transaction);
+
+        log.debug("Transaction processed successfully. ID: {}, Total Price: {}",
+                transaction.getId(), totalPrice);
+
+        return transaction;
+    }
+
+    /**
+     * Ensure the transaction date is present
+     * Format and range are already validated by TransactionDateDeserializer
+     *
+     * @param transactionDate Transaction date from the request
+     * @return Transaction date
+     * @throws BusinessException if date is missing with error code TXN002
+     */
+    private LocalDate requireTransactionDate(LocalDate transactionDate) {
+        if (transactionDate == null) {
+            log.error("Missing transaction date");
+            throw new RejectedTransactionException(
                     ErrorCode.INVALID_TRANSACTION_DATE,
-                    "Invalid date format: " + dateString + ". Expected format: yyyy-MM-dd",
-                    e).addDetail("providedDate", dateString)
-                    .addDetail("expectedFormat", "yyyy-MM-dd");
+                    "Transaction date cannot be null",
+                    "expectedFormat", "yyyy-MM-dd");
+        }
+        return transactionDate;
+    }
+
+    /**
+     * Coalesce repeated product lines into one item per distinct product
+     * Quantities of the same product are summed so stock is validated against
+     * the total requested, not line by line. First-seen order is preserved.
+     *
+     * @param items Transaction items as received
+     * @return One item per distinct product ID with summed quantity
+     */
+    private List<TransactionItemDTO> coalesceItems(List<TransactionItemDTO> items) {
+        Map<Integer, Integer> quantities = new LinkedHashMap<>();
+        for (TransactionItemDTO item : items) {
+            quantities.merge(item.getProductId(), item.getQty(), Integer::sum);
         }
+
+        if (quantities.size() == items.size()) {
+            return items;
+        }
+
+        List<TransactionItemDTO> coalesced = new ArrayList<>(quantities.size());
+        quantities.forEach((productId, qty) -> coalesced.add(new TransactionItemDTO(productId, qty)));
+        log.debug("Coalesced {} transaction lines into {} products", items.size(), coalesced.size());
+        return coalesced;
     }
 
     /**
      * Validate all transaction items before processing
-     * This ensures all products exist and have sufficient stock
+     * Takes catalog data from the product cache and current stock from one
+     * query, then ensures all products exist and have sufficient stock, net of
+     * decrements already pending in the database transaction
      * Throws exception immediately if any validation fails
      *
-     * @param dto Transaction request DTO containing items to validate
+     * @param items       Coalesced transaction items, one per distinct product
+     * @param pendingRows Deferred rows holding the pending stock decrements
+     * @return Validated product snapshots keyed by ID
      * @throws BusinessException if product not found (PRD001) or insufficient stock
      *                           (PRD002)
      */
-    private void validateTransactionItems(TransactionRequestDTO dto) {
-        log.debug("Validating {} transaction items", dto.getItems().size());
-
-        for (TransactionItemDTO item : dto.getItems()) {
-            // Get product (will throw ProductNotFoundException if not found)
-            product product = productService.getProductById(item.getProductId());
+    private Map<Integer, ProductCatalogEntry> validateTransactionItems(List<TransactionItemDTO> items,
+            PendingRows pendingRows) {
+        log.debug("Validating {} transaction items", items.size());
+
+        // Get all products at once (will throw BusinessException if any not found)
+        List<Integer> productIds = items.stream().map(TransactionItemDTO::getProductId).toList();
+        Map<Integer, ProductCatalogEntry> products = productService.getProductSnapshots(productIds);
+        Map<Integer, Integer> stock = productService.getCurrentStock(productIds);
+
+        for (TransactionItemDTO item : items) {
+            ProductCatalogEntry product = products.get(item.getProductId());
+            Integer availableStock = stock.get(item.getProductId());
+            if (availableStock != null) {
+                availableStock -= pendingRows.pendingDecrement(item.getProductId());
+            }
 
-            // Validate stock (will throw InsufficientStockException if insufficient)
-            productService.validateStock(product, item.getQty());
+            // Validate stock (will throw BusinessException if insufficient)
+            productService.validateStock(product, item.getQty(), availableStock);
 
-            log.debug("Validated product ID: {}, qty: {}, available stock: {}",
-                    item.getProductId(), item.getQty(), product.getCurrentStock());
+            if (log.isDebugEnabled() && logSampler.sampleItem()) {
+                log.debug("Validated product ID: {}, qty: {}, available stock: {}",
+                        item.getProductId(), item.getQty(), availableStock);
+            }
         }
 
-        log.info("All transaction items validated successfully");
+        log.debug("All transaction items validated successfully");
+        return products;
+    }
+
+    /**
+     * Calculate the total price of a transaction
+     *
+     * @param items    Coalesced transaction items
+     * @param products Validated product snapshots keyed by ID
+     * @return Sum of quantity × unit price over all items
+     */
+    private BigDecimal calculateTotalPrice(List<TransactionItemDTO> items, Map<Integer, ProductCatalogEntry> products) {
+        BigDecimal totalPrice = BigDecimal.ZERO;
+        for (TransactionItemDTO item : items) {
+            totalPrice = totalPrice.add(
+                    products.get(item.getProductId()).getPrice().multiply(BigDecimal.valueOf(item.getQty())));
+        }
+        return totalPrice;
     }
 
     /**
-     * Create transaction history record with initial values
-     * Total price is set to zero initially and will be updated after processing all
-     * items
+     * Create transaction history record
      *
      * @param transactionDate Date of the transaction
+     * @param totalPrice      Total price of all items
      * @return Saved transactionHistory entity with generated ID
      */
-    private transactionHistory createTransactionHistory(LocalDate transactionDate) {
+    private transactionHistory createTransactionHistory(LocalDate transactionDate, BigDecimal totalPrice) {
         transactionHistory transaction = transactionHistory.builder()
                 .transactionDate(transactionDate)
-                .totalPrice(BigDecimal.ZERO)
+                .totalPrice(totalPrice)
                 .build();
 
         return transactionHistoryRepository.save(transaction);
@@ -163,38 +365,52 @@ public class TransactionService {
 
     /**
      * Process a single transaction item
-     * This includes: creating transaction detail, stock log, and updating product
-     * stock
+     * This includes: creating transaction detail and stock log, and queueing
+     * the stock decrement
      * All operations are performed within the same database transaction
      *
      * @param transaction Transaction history entity to associate with
+     * @param product     Validated product snapshot for this item
      * @param item        Transaction item DTO containing product ID and quantity
+     * @param pendingRows Deferred detail and stock log rows
      * @return Total price for this item (quantity × unit price)
      */
-    private BigDecimal processTransactionItem(transactionHistory transaction, TransactionItemDTO item) {
-        log.info("Processing item: product_id={}, qty={}", item.getProductId(), item.getQty());
-
-        // Step 1: Get product data
-        product product = productService.getProductById(item.getProductId());
+    private BigDecimal processTransactionItem(
+            transactionHistory transaction,
+            ProductCatalogEntry product,
+            TransactionItemDTO item,
+            PendingRows pendingRows) {
+        // Per-item lines are rate limited; the consumer logs one summary per transaction
+        boolean logItem = log.isDebugEnabled() && logSampler.sampleItem();
+        if (logItem) {
+            log.debug("Processing item: product_id={}, qty={}, name={}, price={}",
+                    item.getProductId(), item.getQty(), product.getProductName(), product.getPrice());
+        }
 
-        log.debug("Product details: id={}, name={}, price={}, current_stock={}",
-                product.getId(), product.getProductName(),
-                product.getPrice(), product.getCurrentStock());
+        // Step 1: Product data was taken from the catalog cache during validation
+        product productRef = productService.getProductReference(product.getId());
 
         // Step 2: Calculate prices
         BigDecimal unitPrice = product.getPrice();
         BigDecimal totalPrice = unitPrice.multiply(BigDecimal.valueOf(item.getQty()));
+        if (pendingRows.rollup != null) {
+            pendingRows.rollup.add(transaction.getTransactionDate(), product.getId(), item.getQty(), totalPrice);
+        }
 
         // Step 3: Insert transaction detail
-        transactionDetail detail = createTransactionDetail(transaction, product, item, unitPrice, totalPrice);
-        log.debug("Transaction detail created with ID: {}", detail.getId());
+        transactionDetail detail = createTransactionDetail(transaction, productRef, item, unitPrice, totalPrice, pendingRows);
+        if (logItem) {
+            log.debug("Transaction detail created with ID: {}", detail.getId());
+        }
 
         // Step 4: Insert stock log
-        stockLog stockLog = createStockLog(product, item.getQty());
-        log.debug("Stock log created with ID: {}", stockLog.getId());
+        stockLog stockLog = createStockLog(productRef, item.getQty(), pendingRows);
+        if (logItem) {
+            log.debug("Stock log created with ID: {}", stockLog.getId());
+        }
 
-        // Step 5: Update product stock
-        productService.updateStock(product, item.getQty());
+        // Step 5: Queue the stock decrement, applied in product ID order
+        pendingRows.addDecrement(product, item.getQty());
 
         return totalPrice;
     }
@@ -202,12 +418,14 @@ public class TransactionService {
     /**
      * Create and save transaction detail record
      * Records the product sold, quantity, unit price, and total price
+     * In COPY mode the record is queued instead and keeps a null ID
      *
      * @param transaction Transaction history to link with
      * @param product     Product entity being sold
      * @param item        Transaction item DTO with quantity
      * @param unitPrice   Unit price of the product at time of sale
      * @param totalPrice  Calculated total price (quantity × unit price)
+     * @param pendingRows Deferred rows, queued here in COPY mode
      * @return Saved transactionDetail entity with generated ID
      */
     private transactionDetail createTransactionDetail(
@@ -215,34 +433,158 @@ public class TransactionService {
             product product,
             TransactionItemDTO item,
             BigDecimal unitPrice,
-            BigDecimal totalPrice) {
+            BigDecimal totalPrice,
+            PendingRows pendingRows) {
 
         transactionDetail detail = transactionDetail.builder()
                 .transactionHistory(transaction)
+                .transactionDate(transaction.getTransactionDate())
                 .product(product)
                 .qty(item.getQty())
                 .price(unitPrice)
                 .totalPrice(totalPrice)
                 .build();
 
+        if (pendingRows.copy) {
+            pendingRows.details.add(detail);
+            return detail;
+        }
         return transactionDetailRepository.save(detail);
     }
 
     /**
      * Create and save stock log record for sale transaction
      * Records negative quantity change (stock reduction) with log type SALE
+     * In COPY mode the record is queued instead and keeps a null ID. In
+     * coalescing mode the sale is added to the product's pending SALE row,
+     * which is written once at the end of the database transaction, so the
+     * summed quantity_change still matches the stock decrements exactly
      *
-     * @param product Product entity whose stock is being reduced
-     * @param qty     Quantity sold (will be recorded as negative value)
-     * @return Saved stockLog entity with generated ID
+     * @param product     Product entity whose stock is being reduced
+     * @param qty         Quantity sold (will be recorded as negative value)
+     * @param pendingRows Deferred rows, queued here in COPY or coalescing mode
+     * @return Saved or pending stockLog entity
      */
-    private stockLog createStockLog(product product, Integer qty) {
+    private stockLog createStockLog(product product, Integer qty, PendingRows pendingRows) {
+        if (pendingRows.coalesce) {
+            stockLog pending = pendingRows.coalescedStockLogs.get(product.getId());
+            if (pending != null) {
+                pending.setQuantityChange(pending.getQuantityChange() - qty);
+                pending.setMovementCount(pending.getMovementCount() + 1);
+                return pending;
+            }
+        }
+
         stockLog log = stockLog.builder()
                 .product(product)
                 .quantityChange(-qty) // Negative because it's a sale
                 .logType(LOG_TYPE_SALE)
+                .ledgerPending(productService.isStockLedgerManaged(product.getId()))
                 .build();
 
+        if (pendingRows.coalesce) {
+            pendingRows.coalescedStockLogs.put(product.getId(), log);
+            return log;
+        }
+        if (pendingRows.copy) {
+            pendingRows.stockLogs.add(log);
+            return log;
+        }
         return stockLogRepository.save(log);
     }
+
+    /**
+     * Whether items should be written with COPY instead of JPA
+     * Each item produces one detail and one stock log row
+     *
+     * @param itemCount Number of items to be written
+     * @return true if the row count reaches the COPY threshold
+     */
+    private boolean useCopy(int itemCount) {
+        return copyThreshold > 0 && itemCount * 2 >= copyThreshold;
+    }
+
+    /**
+     * Create the holder for rows deferred to the end of a database transaction
+     *
+     * @param itemCount Number of items to be written
+     * @return Pending rows configured for COPY, coalescing and the rollup
+     */
+    private PendingRows newPendingRows(int itemCount) {
+        return new PendingRows(useCopy(itemCount), coalesceStockLogs,
+                salesRollupEnabled ? salesRollupService.newBuffer() : null);
+    }
+
+    /**
+     * Decrement stock and write deferred detail and stock log rows and the
+     * sales rollup in the current transaction
+     * Stock is decremented first, one conditional UPDATE per product in
+     * ascending product ID order, so concurrent transactions take product row
+     * locks in the same order whatever their batch contains
+     *
+     * @param pendingRows Stock decrements, rows queued for COPY, coalesced
+     *                    stock logs and rollup deltas
+     * @throws BusinessException with error code PRD002 if a product no longer
+     *                           has enough stock
+     */
+    private void writePendingRows(PendingRows pendingRows) {
+        for (StockDecrement decrement : pendingRows.stockDecrements.values()) {
+            productService.updateStock(decrement.product(), decrement.qty());
+        }
+
+        List<stockLog> stockLogs = pendingRows.stockLogs;
+        if (pendingRows.coalesce) {
+            stockLogs = new ArrayList<>(pendingRows.coalescedStockLogs.values());
+        }
+
+        if (pendingRows.copy) {
+            long details = copyBulkInsertRepository.copyTransactionDetails(pendingRows.details);
+            long logs = copyBulkInsertRepository.copyStockLogs(stockLogs);
+            log.info("Bulk inserted {} transaction details and {} stock logs with COPY", details, logs);
+        } else if (!stockLogs.isEmpty()) {
+            stockLogRepository.saveAll(stockLogs);
+            log.debug("Saved {} coalesced stock logs", stockLogs.size());
+        }
+
+        if (pendingRows.rollup != null) {
+            salesRollupService.apply(pendingRows.rollup);
+        }
+    }
+
+    /**
+     * Stock decrements, detail, stock log and rollup rows deferred to the end
+     * of a database transaction
+     */
+    private static final class PendingRows {
+        private final boolean copy;
+        private final boolean coalesce;
+        // Sorted by product ID: the lock order
+        private final Map<Integer, StockDecrement> stockDecrements = new TreeMap<>();
+        private final List<transactionDetail> details = new ArrayList<>();
+        private final List<stockLog> stockLogs = new ArrayList<>();
+        private final Map<Integer, stockLog> coalescedStockLogs = new LinkedHashMap<>();
+        private final SalesRollupService.Buffer rollup;
+
+        private PendingRows(boolean copy, boolean coalesce, SalesRollupService.Buffer rollup) {
+            this.copy = copy;
+            this.coalesce = coalesce;
+            this.rollup = rollup;
+        }
+
+        private void addDecrement(ProductCatalogEntry product, int qty) {
+            stockDecrements.merge(product.getId(), new StockDecrement(product, qty),
+                    (pending, added) -> new StockDecrement(product, pending.qty() + added.qty()));
+        }
+
+        private int pendingDecrement(Integer productId) {
+            StockDecrement decrement = stockDecrements.get(productId);
+            return decrement == null ? 0 : decrement.qty();
+        }
+    }
+
+    /**
+     * Total quantity to take from one product's stock
+     */
+    private record StockDecrement(ProductCatalogEntry product, int qty) {
+    }
 }
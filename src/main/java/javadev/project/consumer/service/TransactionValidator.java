@@ -0,0 +1,107 @@
+package javadev.project.consumer.service;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import javadev.project.consumer.dto.ProductCatalogEntry;
+import javadev.project.consumer.dto.TransactionItemDTO;
+import javadev.project.consumer.dto.TransactionRequestDTO;
+import javadev.project.consumer.dto.ValidationResultDTO;
+import javadev.project.consumer.exception.ErrorCode;
+import javadev.project.consumer.exception.RejectedTransactionException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Validates transaction requests before their database transaction
+ * Checks the jakarta constraints on TransactionRequestDTO and
+ * TransactionItemDTO, then that every product exists, using the product
+ * catalog cache. Invalid requests are rejected without opening a database
+ * transaction; products the cache has not seen yet are loaded in one short
+ * query, and unknown products are remembered.
+ *
+ * Stock is not checked here: it is never cached, and the conditional stock
+ * decrement in the transaction stays authoritative
+ */
+@Service
+@RequiredArgsConstructor
+public class TransactionValidator {
+
+    private final Validator validator;
+    private final ProductService productService;
+
+    /**
+     * Validate a parsed transaction request
+     *
+     * @param request Parsed transaction request DTO
+     * @return Valid, or rejected with the first problem found
+     */
+    public ValidationResultDTO validate(TransactionRequestDTO request) {
+        Set<ConstraintViolation<TransactionRequestDTO>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            return ValidationResultDTO.rejected(toRejection(firstViolation(violations)));
+        }
+
+        List<Integer> productIds = distinctProductIds(request.getItems());
+        Map<Integer, ProductCatalogEntry> products = productService.findProductSnapshots(productIds);
+        for (Integer productId : productIds) {
+            if (!products.containsKey(productId)) {
+                return ValidationResultDTO.rejected(new RejectedTransactionException(
+                        ErrorCode.PRODUCT_NOT_FOUND,
+                        "Product not found",
+                        "productId", productId));
+            }
+        }
+        return ValidationResultDTO.valid();
+    }
+
+    /**
+     * Pick a violation deterministically, since the validator returns a set
+     */
+    private ConstraintViolation<TransactionRequestDTO> firstViolation(
+            Set<ConstraintViolation<TransactionRequestDTO>> violations) {
+        ConstraintViolation<TransactionRequestDTO> first = null;
+        for (ConstraintViolation<TransactionRequestDTO> violation : violations) {
+            if (first == null || violation.getPropertyPath().toString()
+                    .compareTo(first.getPropertyPath().toString()) < 0) {
+                first = violation;
+            }
+        }
+        return first;
+    }
+
+    private RejectedTransactionException toRejection(ConstraintViolation<TransactionRequestDTO> violation) {
+        String field = violation.getPropertyPath().toString();
+        ErrorCode errorCode;
+        if (field.equals("transactionDate")) {
+            errorCode = ErrorCode.INVALID_TRANSACTION_DATE;
+        } else if (field.equals("items")) {
+            errorCode = ErrorCode.EMPTY_TRANSACTION_ITEMS;
+        } else if (field.endsWith(".qty")) {
+            errorCode = ErrorCode.INVALID_QUANTITY;
+        } else {
+            errorCode = ErrorCode.VALIDATION_ERROR;
+        }
+        return new RejectedTransactionException(
+                errorCode,
+                violation.getMessage(),
+                "field", field,
+                "invalidValue", violation.getInvalidValue());
+    }
+
+    private List<Integer> distinctProductIds(List<TransactionItemDTO> items) {
+        List<Integer> productIds = new ArrayList<>(items.size());
+        Set<Integer> seen = new HashSet<>();
+        for (TransactionItemDTO item : items) {
+            if (seen.add(item.getProductId())) {
+                productIds.add(item.getProductId());
+            }
+        }
+        return productIds;
+    }
+}
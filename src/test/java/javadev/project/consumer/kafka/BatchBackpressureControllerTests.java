@@ -0,0 +1,173 @@
+package javadev.project.consumer.kafka;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Drives the backpressure controller against a simulated database with
+ * injected latency: a poll loop that only fetches while the container is not
+ * paused, on a simulated clock
+ */
+class BatchBackpressureControllerTests {
+
+    private static final long TARGET_LATENCY = ms(200);
+    private static final long POLL_INTERVAL = ms(200);
+
+    private final SimulatedDatabase database = new SimulatedDatabase();
+    private final SimulatedContainer container = new SimulatedContainer();
+    private long clock;
+
+    private BatchBackpressureController controller = controller(ms(30_000));
+
+    @Test
+    void injectedLatencyKeepsTransactionsNearTarget() {
+        database.inject(ms(5), ms(2), 0);
+
+        List<Long> latencies = new ArrayList<>();
+        int smallestBatch = Integer.MAX_VALUE;
+        for (int i = 0; i < 200; i++) {
+            int size = controller.getBatchSize();
+            latencies.add(step());
+            if (i >= 5) {
+                smallestBatch = Math.min(smallestBatch, size);
+            }
+        }
+
+        // Settles into a sawtooth just under the target instead of collapsing
+        assertThat(latencies.subList(5, latencies.size())).allMatch(latency -> latency <= ms(230));
+        assertThat(smallestBatch).isGreaterThanOrEqualTo(50);
+        assertThat(controller.getPauseCount()).isZero();
+    }
+
+    @Test
+    void sustainedSaturationPausesAndResumesTheContainer() {
+        database.inject(0, ms(1) / 10, 0);
+        run(ms(5_000));
+        assertThat(controller.getBatchSize()).isEqualTo(500);
+
+        // Saturated: every transaction takes seconds and the pool has waiters
+        database.inject(ms(2_000), ms(1), 6);
+        long saturationEnd = clock + ms(60_000);
+        int saturatedBatches = 0;
+        while (clock < saturationEnd) {
+            if (step() > 0) {
+                saturatedBatches++;
+            }
+        }
+        assertThat(saturatedBatches).isLessThanOrEqualTo(6);
+        assertThat(container.paused).isTrue();
+        assertThat(controller.getBatchSize()).isEqualTo(10);
+
+        database.inject(0, ms(1) / 10, 0);
+        step();
+        assertThat(container.paused).isFalse();
+
+        run(ms(10_000));
+        assertThat(controller.getBatchSize()).isEqualTo(500);
+        assertThat(controller.getPauseCount()).isEqualTo(1);
+        assertThat(container.pauses).isEqualTo(1);
+        assertThat(container.resumes).isEqualTo(1);
+    }
+
+    @Test
+    void repeatedPausesBackOffUpToTheMaximum() {
+        controller = controller(ms(4_000));
+
+        // Slow without pool waiters: the container resumes, probes at the
+        // minimum size and pauses again for longer each time
+        database.inject(ms(1_000), 0, 0);
+        run(ms(60_000));
+
+        assertThat(container.pauseDurations).startsWith(ms(1_000), ms(2_000), ms(4_000), ms(4_000));
+
+        // A healthy transaction resets the backoff
+        database.inject(0, ms(1) / 10, 0);
+        run(ms(10_000));
+        container.pauseDurations.clear();
+        database.inject(ms(1_000), 0, 0);
+        run(ms(10_000));
+
+        assertThat(container.pauseDurations).startsWith(ms(1_000));
+    }
+
+    /**
+     * Poll once: process a full batch, or wait while the container is paused
+     *
+     * @return Transaction latency, or 0 if the container was paused
+     */
+    private long step() {
+        if (container.paused) {
+            clock += POLL_INTERVAL;
+            controller.checkResume();
+            return 0;
+        }
+        int size = controller.getBatchSize();
+        long latency = database.latency(size);
+        clock += latency;
+        controller.onBatchCompleted(size, latency);
+        return latency;
+    }
+
+    private void run(long duration) {
+        long end = clock + duration;
+        while (clock < end) {
+            step();
+        }
+    }
+
+    private BatchBackpressureController controller(long maxPause) {
+        return new BatchBackpressureController(10, 500, 10, 0.5, TARGET_LATENCY, 0, 3,
+                ms(1_000), maxPause, database::pendingThreads, () -> clock, container);
+    }
+
+    private static long ms(long millis) {
+        return TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+
+    private static class SimulatedDatabase {
+        private long fixedNanos;
+        private long perRecordNanos;
+        private int pendingThreads;
+
+        void inject(long fixedNanos, long perRecordNanos, int pendingThreads) {
+            this.fixedNanos = fixedNanos;
+            this.perRecordNanos = perRecordNanos;
+            this.pendingThreads = pendingThreads;
+        }
+
+        long latency(int records) {
+            return fixedNanos + perRecordNanos * records;
+        }
+
+        int pendingThreads() {
+            return pendingThreads;
+        }
+    }
+
+    private class SimulatedContainer implements BatchBackpressureController.ContainerControl {
+        private final List<Long> pauseDurations = new ArrayList<>();
+        private boolean paused;
+        private long pausedAt;
+        private int pauses;
+        private int resumes;
+
+        @Override
+        public void pause() {
+            paused = true;
+            pausedAt = clock;
+            pauses++;
+        }
+
+        @Override
+        public void resume() {
+            paused = false;
+            pauseDurations.add(clock - pausedAt);
+            resumes++;
+        }
+    }
+}
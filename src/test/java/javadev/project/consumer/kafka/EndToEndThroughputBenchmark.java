@@ -0,0 +1,289 @@
+package javadev.project.consumer.kafka;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.CountAtBucket;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import jakarta.persistence.EntityManagerFactory;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Collectors;
+
+/**
+ * Sustained throughput of the full consumer stack: embedded Kafka broker,
+ * SalesTransactionConsumer, TransactionService and a real PostgreSQL database
+ * Recreates a scratch database (sales_bench) from database-setup.sql on the
+ * given server, adds benchmark products with ample stock, then sends a
+ * warm-up stream followed by the measured stream from SalesLoadGenerator
+ * (Zipf product mix, configurable items per message and malformed ratio)
+ *
+ * Reports for the measured stream:
+ * - throughput in messages/s, with the outcome of every message
+ * - end-to-end (record timestamp to commit) and commit latency histograms
+ *   with p50/p90/p99/max, from the consumer's Micrometer timers
+ * - JDBC statements and database transactions per message, from Hibernate
+ *   statistics; statements issued through Session.doWork (COPY, the rollup
+ *   UPSERT) are not included
+ *
+ * Run with: ./mvnw test -Dtest=EndToEndThroughputBenchmark -Dbenchmark=true
+ * -Dbenchmark.jdbc-url=jdbc:postgresql://localhost:5432/postgres
+ * -Dbenchmark.jdbc-username=... -Dbenchmark.jdbc-password=...
+ * [-Dbenchmark.messages=50000] [-Dbenchmark.warmup-messages=5000]
+ * [-Dbenchmark.rate=0 (msg/s, 0 = as fast as possible)]
+ * [-Dbenchmark.products=1000] [-Dbenchmark.zipf-exponent=1.0]
+ * [-Dbenchmark.items-per-message=5] [-Dbenchmark.malformed-ratio=0.01]
+ * [-Dbenchmark.batch=false] [-Dbenchmark.parallel=false] [-Dbenchmark.concurrency=1]
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@SpringBootTest(properties = {
+        "spring.main.web-application-type=none",
+        "spring.datasource.driver-class-name=org.postgresql.Driver",
+        "spring.datasource.username=${benchmark.jdbc-username:postgres}",
+        "spring.datasource.password=${benchmark.jdbc-password:postgres}",
+        "spring.datasource.hikari.maximum-pool-size=10",
+        "spring.jpa.hibernate.ddl-auto=none",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.PostgreSQLDialect",
+        "spring.jpa.properties.hibernate.jdbc.batch_size=50",
+        "spring.jpa.properties.hibernate.order_inserts=true",
+        "spring.jpa.properties.hibernate.order_updates=true",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.kafka.consumer.bootstrap-servers=${spring.embedded.kafka.brokers}",
+        "spring.kafka.consumer.group-id=end-to-end-benchmark",
+        "spring.kafka.consumer.auto-offset-reset=earliest",
+        "kafka.topic.sales-transaction=" + EndToEndThroughputBenchmark.TOPIC,
+        "kafka.consumer.batch.enabled=${benchmark.batch:false}",
+        "kafka.consumer.parallel.enabled=${benchmark.parallel:false}",
+        "kafka.consumer.concurrency=${benchmark.concurrency:1}",
+        "product.cache.invalidation.enabled=false",
+        "logging.level.root=WARN"
+})
+@EmbeddedKafka(partitions = 4, topics = EndToEndThroughputBenchmark.TOPIC)
+class EndToEndThroughputBenchmark {
+
+    static final String TOPIC = "sales-transaction-bench";
+    private static final String DATABASE = "sales_bench";
+    private static final int[] PERCENTILES = { 50, 90, 99 };
+
+    private static final List<Integer> productIds = new ArrayList<>();
+
+    private final int messages = Integer.getInteger("benchmark.messages", 50_000);
+    private final int warmupMessages = Integer.getInteger("benchmark.warmup-messages", 5_000);
+    private final int rate = Integer.getInteger("benchmark.rate", 0);
+    private final double zipfExponent = Double.parseDouble(System.getProperty("benchmark.zipf-exponent", "1.0"));
+    private final int itemsPerMessage = Integer.getInteger("benchmark.items-per-message", 5);
+    private final double malformedRatio = Double.parseDouble(System.getProperty("benchmark.malformed-ratio", "0.01"));
+    private final long timeoutSeconds = Long.getLong("benchmark.timeout-seconds", 600);
+
+    @Autowired
+    private EmbeddedKafkaBroker embeddedKafka;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) throws SQLException, IOException {
+        String serverUrl = System.getProperty("benchmark.jdbc-url", "jdbc:postgresql://localhost:5432/postgres");
+        String username = System.getProperty("benchmark.jdbc-username", "postgres");
+        String password = System.getProperty("benchmark.jdbc-password", "postgres");
+        String benchUrl = serverUrl.substring(0, serverUrl.lastIndexOf('/') + 1) + DATABASE;
+
+        try (Connection connection = DriverManager.getConnection(serverUrl, username, password);
+                Statement statement = connection.createStatement()) {
+            statement.execute("DROP DATABASE IF EXISTS " + DATABASE + " WITH (FORCE)");
+            statement.execute("CREATE DATABASE " + DATABASE);
+        }
+
+        // Skip creating and connecting to sales_db; the rest runs as one script
+        String script = Files.readAllLines(Path.of("database-setup.sql")).stream()
+                .filter(line -> !line.startsWith("CREATE DATABASE") && !line.startsWith("\\c"))
+                .collect(Collectors.joining("\n"));
+        int products = Integer.getInteger("benchmark.products", 1_000);
+        try (Connection connection = DriverManager.getConnection(benchUrl, username, password)) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute(script);
+            }
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "INSERT INTO product (sku, product_name, current_stock, price) "
+                            + "SELECT 'BENCH-' || g, 'Benchmark product ' || g, 1000000000, 1000 + (g % 100) * 500 "
+                            + "FROM generate_series(1, ?) g RETURNING id")) {
+                statement.setInt(1, products);
+                productIds.clear();
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        productIds.add(resultSet.getInt(1));
+                    }
+                }
+            }
+        }
+
+        registry.add("spring.datasource.url", () -> benchUrl + "?reWriteBatchedInserts=true");
+    }
+
+    @Test
+    void sustainedThroughput() {
+        SalesLoadGenerator generator = new SalesLoadGenerator(productIds, zipfExponent, itemsPerMessage,
+                malformedRatio, 42);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        Map<String, Object> props = KafkaTestUtils.producerProps(embeddedKafka);
+        props.put(ProducerConfig.LINGER_MS_CONFIG, 5);
+        KafkaTemplate<String, byte[]> template = new KafkaTemplate<>(
+                new DefaultKafkaProducerFactory<>(props, new StringSerializer(), new ByteArraySerializer()));
+        try {
+            send(template, generator, warmupMessages, 0);
+            awaitConsumed(warmupMessages);
+
+            HistogramSnapshot endToEndBefore = timer("consumer.end.to.end.latency", null).takeSnapshot();
+            HistogramSnapshot commitBefore = timer("consumer.stage.duration", "commit").takeSnapshot();
+            double[] outcomesBefore = outcomes();
+            statistics.clear();
+
+            long start = System.nanoTime();
+            send(template, generator, messages, rate);
+            awaitConsumed(warmupMessages + messages);
+            long elapsed = System.nanoTime() - start;
+
+            report(elapsed, outcomesBefore, statistics);
+            printHistogram("end-to-end latency", endToEndBefore,
+                    timer("consumer.end.to.end.latency", null).takeSnapshot());
+            printHistogram("commit latency", commitBefore,
+                    timer("consumer.stage.duration", "commit").takeSnapshot());
+        } finally {
+            template.destroy();
+        }
+    }
+
+    private void send(KafkaTemplate<String, byte[]> template, SalesLoadGenerator generator, int count, int rate) {
+        long start = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            if (rate > 0) {
+                long due = start + i * 1_000_000_000L / rate;
+                long wait = due - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+            }
+            template.send(TOPIC, generator.next());
+        }
+        template.flush();
+    }
+
+    private void awaitConsumed(int total) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(timeoutSeconds);
+        while (totalConsumed() < total) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError(String.format("Only %.0f of %d messages consumed after %ds",
+                        totalConsumed(), total, timeoutSeconds));
+            }
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(10));
+        }
+    }
+
+    private double totalConsumed() {
+        return meterRegistry.find("consumer.messages").counters().stream().mapToDouble(Counter::count).sum();
+    }
+
+    private double[] outcomes() {
+        String[] names = { "processed", "duplicate", "skipped", "failed" };
+        double[] counts = new double[names.length];
+        for (int i = 0; i < names.length; i++) {
+            counts[i] = meterRegistry.get("consumer.messages").tag("outcome", names[i]).counter().count();
+        }
+        return counts;
+    }
+
+    private Timer timer(String name, String stage) {
+        return stage == null
+                ? meterRegistry.get(name).timer()
+                : meterRegistry.get(name).tag("stage", stage).timer();
+    }
+
+    private void report(long elapsedNanos, double[] outcomesBefore, Statistics statistics) {
+        double seconds = elapsedNanos / 1_000_000_000d;
+        double[] outcomes = outcomes();
+        System.out.printf("%n%,d messages in %.2fs: %,.0f msg/s (zipf s=%.2f, up to %d items, %.1f%% malformed)%n",
+                messages, seconds, messages / seconds, zipfExponent, itemsPerMessage, malformedRatio * 100);
+        System.out.printf("outcomes: processed %,.0f, duplicate %,.0f, skipped %,.0f, failed %,.0f%n",
+                outcomes[0] - outcomesBefore[0], outcomes[1] - outcomesBefore[1],
+                outcomes[2] - outcomesBefore[2], outcomes[3] - outcomesBefore[3]);
+        System.out.printf("JDBC statements: %,d (%.2f per message), entity inserts %,d, updates %,d, "
+                        + "DB transactions %,d (%.2f per message)%n",
+                statistics.getPrepareStatementCount(), (double) statistics.getPrepareStatementCount() / messages,
+                statistics.getEntityInsertCount(), statistics.getEntityUpdateCount(),
+                statistics.getSuccessfulTransactionCount(),
+                (double) statistics.getSuccessfulTransactionCount() / messages);
+    }
+
+    /**
+     * Print the latency distribution recorded between two snapshots
+     * Bucket counts of the percentile histogram are cumulative, so the
+     * difference of two snapshots is the histogram of the measured run
+     */
+    private void printHistogram(String title, HistogramSnapshot before, HistogramSnapshot after) {
+        CountAtBucket[] start = before.histogramCounts();
+        CountAtBucket[] end = after.histogramCounts();
+        long count = after.count() - before.count();
+        System.out.printf("%n%s: %,d samples, mean %.2f ms, max %.2f ms%n", title, count,
+                count == 0 ? 0 : (after.total(TimeUnit.MILLISECONDS) - before.total(TimeUnit.MILLISECONDS)) / count,
+                after.max(TimeUnit.MILLISECONDS));
+        if (count == 0) {
+            return;
+        }
+
+        double[] cumulative = new double[end.length];
+        for (int i = 0; i < end.length; i++) {
+            cumulative[i] = end[i].count() - start[i].count();
+        }
+        for (int percentile : PERCENTILES) {
+            for (int i = 0; i < end.length; i++) {
+                if (cumulative[i] >= percentile / 100d * count) {
+                    System.out.printf("  p%d <= %.2f ms%n", percentile, end[i].bucket(TimeUnit.MILLISECONDS));
+                    break;
+                }
+            }
+        }
+
+        double previous = 0;
+        for (int i = 0; i < end.length; i++) {
+            double inBucket = cumulative[i] - previous;
+            previous = cumulative[i];
+            if (inBucket > 0) {
+                System.out.printf("  <= %10.2f ms %,10.0f %s%n", end[i].bucket(TimeUnit.MILLISECONDS), inBucket,
+                        "#".repeat((int) Math.ceil(50 * inBucket / count)));
+            }
+        }
+    }
+}
@@ -0,0 +1,349 @@
+package javadev.project.consumer.kafka;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.util.LogbackMDCAdapter;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.FileAppender;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import javadev.project.consumer.dto.ProductCatalogEntry;
+import javadev.project.consumer.dto.TransactionItemDTO;
+import javadev.project.consumer.dto.TransactionRequestDTO;
+import javadev.project.consumer.repository.ProductRepository;
+import javadev.project.consumer.service.LogSampler;
+import javadev.project.consumer.service.ProductService;
+import javadev.project.consumer.service.StockLedger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+/**
+ * Logging share of per-message CPU and latency, before and after the prod
+ * logging profile
+ * Each message is parsed with TransactionRequestDeserializer and then emits
+ * the log lines of one transaction through a private logback context:
+ * - none: all loggers off, the baseline
+ * - sync (before): banners and about ten INFO lines per message, two lines
+ *   per item, a low stock WARN, Hibernate SQL DEBUG and BasicBinder TRACE,
+ *   written synchronously to the console and two files
+ * - async (after): the prod profile; one summary line per transaction,
+ *   per-item lines at DEBUG behind LogSampler, bounded async appenders that
+ *   drop INFO under pressure. Stock checks and updates go through
+ *   ProductService itself, against a repository stub, with the first item of
+ *   every message low on stock
+ * The console appender writes to a file so the report stays readable.
+ * ProductService logs through the global logback context, so its logger is
+ * pointed at the same appenders for the duration of a run.
+ * Process CPU includes the async appender threads; the run ends by stopping
+ * the logger context, which drains the async queues.
+ *
+ * Run with: ./mvnw test -Dtest=HotPathLoggingBenchmark -Dbenchmark=true
+ * [-Dbenchmark.messages=200000] [-Dbenchmark.items-per-message=5]
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class HotPathLoggingBenchmark {
+
+    private static final String LOG_PATTERN = "%d{yyyy-MM-dd HH:mm:ss.SSS} [%thread] %-5level %logger{36} - %msg%n%ex{5}";
+    private static final int STATEMENT_PARAMETERS = 4;
+    private static final int STOCK = 100;
+    private static final int LOW_STOCK = 8;
+
+    private final int messages = Integer.getInteger("benchmark.messages", 200_000);
+    private final int itemsPerMessage = Integer.getInteger("benchmark.items-per-message", 5);
+    private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    private final com.sun.management.OperatingSystemMXBean os =
+            (com.sun.management.OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean();
+
+    private TransactionRequestDeserializer deserializer;
+    private ProductCatalogEntry[] products;
+    private byte[] payload;
+    private Path logDir;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        deserializer = new TransactionRequestDeserializer(new ObjectMapper().registerModule(new JavaTimeModule()));
+        StringBuilder json = new StringBuilder("{\"message_id\":\"bench-1\",\"transaction_date\":\"2026-02-13\",\"items\":[");
+        for (int i = 0; i < itemsPerMessage; i++) {
+            json.append(i == 0 ? "" : ",").append("{\"product_id\":").append(i + 1).append(",\"qty\":2}");
+        }
+        payload = json.append("]}").toString().getBytes(StandardCharsets.UTF_8);
+        products = new ProductCatalogEntry[itemsPerMessage];
+        for (int i = 0; i < itemsPerMessage; i++) {
+            products[i] = new ProductCatalogEntry(i + 1, "SKU-" + (i + 1), "Product " + (i + 1), BigDecimal.TEN);
+        }
+        logDir = Files.createTempDirectory("hot-path-logging");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(logDir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test
+    void compareLoggingModes() {
+        // Warm up the parser and every logging path before measuring
+        for (Mode mode : Mode.values()) {
+            run(mode, Math.min(messages, 20_000));
+        }
+
+        Result none = run(Mode.NONE, messages);
+        System.out.printf("%n%-7s %10s %10s %10s %14s %15s %14s %10s%n", "mode", "lines/msg", "p50 us", "p99 us",
+                "thread us/msg", "process us/msg", "logging share", "dropped");
+        for (Mode mode : Mode.values()) {
+            Result result = mode == Mode.NONE ? none : run(mode, messages);
+            System.out.printf("%-7s %10.1f %10.2f %10.2f %14.2f %15.2f %13.1f%% %10d%n",
+                    mode.name().toLowerCase(), (double) result.linesWritten / messages,
+                    result.percentileNanos(50) / 1_000d, result.percentileNanos(99) / 1_000d,
+                    result.threadCpuNanos / 1_000d / messages, result.processCpuNanos / 1_000d / messages,
+                    100 * (1 - (double) none.processCpuNanos / result.processCpuNanos), result.dropped);
+        }
+    }
+
+    private Result run(Mode mode, int count) {
+        LoggerContext context = new LoggerContext();
+        context.setMDCAdapter(new LogbackMDCAdapter());
+        context.start();
+        Path dir = logDir.resolve(mode.name().toLowerCase() + "-" + System.nanoTime());
+        LogSampler logSampler = new LogSampler(5, 20, 5);
+        ProductService productService = productService(logSampler);
+
+        Logger consumerLog = context.getLogger("javadev.project.consumer.kafka.SalesTransactionConsumer");
+        Logger serviceLog = context.getLogger("javadev.project.consumer.service.TransactionService");
+        Logger productLog = context.getLogger(ProductService.class.getName());
+        Logger sqlLog = context.getLogger("org.hibernate.SQL");
+        Logger binderLog = context.getLogger("org.hibernate.type.descriptor.sql.BasicBinder");
+        Logger productServiceLog = (Logger) LoggerFactory.getLogger(ProductService.class);
+        configure(mode, context, dir, consumerLog, serviceLog, productLog, sqlLog, binderLog);
+        shareAppenders(productLog, productServiceLog);
+
+        long[] latencies = new long[count];
+        long threadStart = threads.getCurrentThreadCpuTime();
+        long processStart = os.getProcessCpuTime();
+        for (int i = 0; i < count; i++) {
+            long start = System.nanoTime();
+            TransactionRequestDTO request = deserializer.deserialize(null, payload);
+            if (mode == Mode.SYNC) {
+                logBefore(request, i, consumerLog, serviceLog, productLog, sqlLog, binderLog);
+            } else {
+                logAfter(request, i, consumerLog, serviceLog, logSampler, productService);
+            }
+            latencies[i] = System.nanoTime() - start;
+        }
+        long threadCpu = threads.getCurrentThreadCpuTime() - threadStart;
+        productServiceLog.detachAndStopAllAppenders();
+        productServiceLog.setLevel(null);
+        productServiceLog.setAdditive(true);
+        context.stop();
+        long processCpu = os.getProcessCpuTime() - processStart;
+
+        long linesWritten = countLines(dir.resolve("kafka-consumer.log")) + countLines(dir.resolve("transaction.log"));
+        long expected = mode == Mode.NONE ? 0
+                : mode == Mode.SYNC ? (long) count * (10 + 2L * itemsPerMessage) : count;
+        Arrays.sort(latencies);
+        return new Result(latencies, threadCpu, processCpu, linesWritten, Math.max(0, expected - linesWritten));
+    }
+
+    /**
+     * Log lines of one transaction before the prod profile
+     */
+    private void logBefore(TransactionRequestDTO request, long id, Logger consumerLog, Logger serviceLog,
+            Logger productLog, Logger sqlLog, Logger binderLog) {
+        consumerLog.info("========================================");
+        consumerLog.info("Received Kafka message from topic: sales-transaction-adi");
+        if (consumerLog.isDebugEnabled()) {
+            consumerLog.debug("Message: {}", new String(payload, StandardCharsets.UTF_8));
+        }
+        consumerLog.info("========================================");
+        consumerLog.info("✓ Parsed message: id={}, date={}, items={}",
+                request.getMessageId(), request.getTransactionDate(), request.getItems().size());
+
+        serviceLog.info("Processing transaction: date={}, items count={}",
+                request.getTransactionDate(), request.getItems().size());
+        statement(sqlLog, binderLog, "select p1_0.id,p1_0.price,p1_0.product_name,p1_0.sku from product p1_0 where p1_0.id in (?)");
+        serviceLog.info("All transaction items validated successfully");
+        statement(sqlLog, binderLog, "insert into transaction_history (created_at,total_price,transaction_date,id) values (?,?,?,?)");
+        serviceLog.info("Transaction history created with ID: {}", id);
+        for (int i = 0; i < request.getItems().size(); i++) {
+            TransactionItemDTO item = request.getItems().get(i);
+            if (i == 0) {
+                productLog.warn("Low stock alert for product ID: {} ({}). Stock after sale: {}",
+                        item.getProductId(), products[i].getProductName(), LOW_STOCK - item.getQty());
+            }
+            serviceLog.info("Processing item: product_id={}, qty={}", item.getProductId(), item.getQty());
+            statement(sqlLog, binderLog, "insert into transaction_detail (created_at,price,product_id,qty,total_price,transaction_date,transaction_id,id) values (?,?,?,?,?,?,?,?)");
+            statement(sqlLog, binderLog, "insert into stock_log (created_at,log_type,product_id,quantity_change,id) values (?,?,?,?,?)");
+            statement(sqlLog, binderLog, "update product set current_stock=current_stock-? where id=? and current_stock>=?");
+            productLog.info("Updated stock for product ID: {}. Reduced by: {}", item.getProductId(), item.getQty());
+        }
+        statement(sqlLog, binderLog, "insert into processed_message (message_id,processed_at,transaction_id,id) values (?,?,?,?)");
+        serviceLog.info("Transaction processed successfully. ID: {}, Total Price: {}", id, BigDecimal.TEN);
+        consumerLog.info("✓ SUCCESS - Transaction processed: id={}, totalPrice={}", id, BigDecimal.TEN);
+    }
+
+    /**
+     * Log lines of one transaction with the prod profile, as now emitted by
+     * SalesTransactionConsumer and TransactionService; stock checks and
+     * updates run through ProductService
+     */
+    private void logAfter(TransactionRequestDTO request, long id, Logger consumerLog, Logger serviceLog,
+            LogSampler logSampler, ProductService productService) {
+        consumerLog.debug("Received Kafka message: partition={}, offset={}", 0, id);
+        if (consumerLog.isDebugEnabled() && logSampler.samplePayload()) {
+            consumerLog.debug("Message: {}", new String(payload, StandardCharsets.UTF_8));
+        }
+        for (int i = 0; i < request.getItems().size(); i++) {
+            TransactionItemDTO item = request.getItems().get(i);
+            if (serviceLog.isDebugEnabled() && logSampler.sampleItem()) {
+                serviceLog.debug("Processing item: product_id={}, qty={}", item.getProductId(), item.getQty());
+            }
+            productService.validateStock(products[i], item.getQty(), i == 0 ? LOW_STOCK : STOCK);
+            productService.updateStock(products[i], item.getQty());
+        }
+        consumerLog.info("✓ Transaction processed: messageId={}, id={}, date={}, items={}, totalPrice={}, latencyMs={}",
+                request.getMessageId(), id, request.getTransactionDate(), request.getItems().size(),
+                BigDecimal.TEN, 3);
+    }
+
+    private void statement(Logger sqlLog, Logger binderLog, String sql) {
+        sqlLog.debug(sql);
+        for (int i = 1; i <= STATEMENT_PARAMETERS; i++) {
+            binderLog.trace("binding parameter [{}] as [INTEGER] - [{}]", i, i);
+        }
+    }
+
+    /**
+     * ProductService with a repository stub whose conditional UPDATE always
+     * succeeds, and no stock ledger
+     */
+    private ProductService productService(LogSampler logSampler) {
+        ProductRepository repository = (ProductRepository) Proxy.newProxyInstance(
+                ProductRepository.class.getClassLoader(), new Class<?>[] { ProductRepository.class },
+                (proxy, method, args) -> {
+                    if (method.getName().equals("decrementStock")) {
+                        return 1;
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+        return new ProductService(repository, null,
+                new StaticListableBeanFactory().getBeanProvider(StockLedger.class), logSampler);
+    }
+
+    /**
+     * Point a logger of the global context at the level and appenders of a
+     * logger of the benchmark context
+     */
+    private void shareAppenders(Logger source, Logger target) {
+        target.detachAndStopAllAppenders();
+        target.setAdditive(false);
+        target.setLevel(source.getLevel());
+        source.iteratorForAppenders().forEachRemaining(target::addAppender);
+    }
+
+    private void configure(Mode mode, LoggerContext context, Path dir, Logger consumerLog, Logger serviceLog,
+            Logger productLog, Logger sqlLog, Logger binderLog) {
+        for (Logger logger : new Logger[] { consumerLog, serviceLog, productLog, sqlLog, binderLog }) {
+            logger.setAdditive(false);
+            logger.setLevel(Level.OFF);
+        }
+        if (mode == Mode.NONE) {
+            return;
+        }
+
+        boolean async = mode == Mode.ASYNC;
+        Appender<ILoggingEvent> console = appender(context, dir, "console.log", async);
+        consumerLog.setLevel(Level.INFO);
+        consumerLog.addAppender(console);
+        consumerLog.addAppender(appender(context, dir, "kafka-consumer.log", async));
+        Appender<ILoggingEvent> transactionFile = appender(context, dir, "transaction.log", async);
+        serviceLog.setLevel(Level.INFO);
+        serviceLog.addAppender(console);
+        serviceLog.addAppender(transactionFile);
+        productLog.setLevel(Level.INFO);
+        productLog.addAppender(console);
+        productLog.addAppender(transactionFile);
+
+        if (!async) {
+            Appender<ILoggingEvent> file = appender(context, dir, "consumer-app.log", false);
+            sqlLog.setLevel(Level.DEBUG);
+            sqlLog.addAppender(console);
+            sqlLog.addAppender(file);
+            binderLog.setLevel(Level.TRACE);
+            binderLog.addAppender(console);
+            binderLog.addAppender(file);
+        }
+    }
+
+    private Appender<ILoggingEvent> appender(LoggerContext context, Path dir, String fileName, boolean async) {
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern(LOG_PATTERN);
+        encoder.setCharset(StandardCharsets.UTF_8);
+        encoder.start();
+
+        FileAppender<ILoggingEvent> file = new FileAppender<>();
+        file.setContext(context);
+        file.setName(fileName);
+        file.setFile(dir.resolve(fileName).toString());
+        file.setEncoder(encoder);
+        file.start();
+        if (!async) {
+            return file;
+        }
+
+        // Same settings as the prod profile in logback-spring.xml
+        AsyncAppender asyncAppender = new AsyncAppender();
+        asyncAppender.setContext(context);
+        asyncAppender.setName("ASYNC_" + fileName);
+        asyncAppender.setQueueSize(8192);
+        asyncAppender.setDiscardingThreshold(2048);
+        asyncAppender.setNeverBlock(true);
+        asyncAppender.addAppender(file);
+        asyncAppender.start();
+        return asyncAppender;
+    }
+
+    private long countLines(Path file) {
+        if (!Files.exists(file)) {
+            return 0;
+        }
+        try (Stream<String> lines = Files.lines(file, StandardCharsets.UTF_8)) {
+            return lines.count();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private enum Mode {
+        NONE, SYNC, ASYNC
+    }
+
+    private record Result(long[] sortedLatencies, long threadCpuNanos, long processCpuNanos, long linesWritten,
+            long dropped) {
+
+        long percentileNanos(int percentile) {
+            return sortedLatencies[Math.min(sortedLatencies.length - 1, sortedLatencies.length * percentile / 100)];
+        }
+    }
+}
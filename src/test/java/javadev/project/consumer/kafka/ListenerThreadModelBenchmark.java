@@ -0,0 +1,90 @@
+package javadev.project.consumer.kafka;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares listener thread models on a simulated blocking JDBC workload
+ * Each record holds one of a fixed number of connections for a fixed time,
+ * as TransactionService.processTransaction does
+ * 
+ * Run with: ./mvnw test -Dtest=ListenerThreadModelBenchmark -Dbenchmark=true
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ListenerThreadModelBenchmark {
+
+    private static final int RECORDS = 2_000;
+    private static final int PRODUCTS = 500;
+    private static final int CONNECTION_POOL_SIZE = 10;
+    private static final long DB_WAIT_MILLIS = 5;
+
+    private final Semaphore connectionPool = new Semaphore(CONNECTION_POOL_SIZE);
+
+    @Test
+    void compareThreadModels() throws Exception {
+        List<Set<Integer>> records = generateRecords();
+
+        report("listener thread (current)", runOnListenerThread(records));
+        report("platform pool, 8 threads", runKeyed(records,
+                new ProductKeyedExecutor(Executors.newFixedThreadPool(8), 256)));
+        report("virtual threads, window=pool", runKeyed(records,
+                new ProductKeyedExecutor(Executors.newVirtualThreadPerTaskExecutor(), CONNECTION_POOL_SIZE)));
+    }
+
+    private long runOnListenerThread(List<Set<Integer>> records) {
+        long start = System.nanoTime();
+        records.forEach(productIds -> simulateTransaction());
+        return System.nanoTime() - start;
+    }
+
+    private long runKeyed(List<Set<Integer>> records, ProductKeyedExecutor executor) throws Exception {
+        try {
+            long start = System.nanoTime();
+            List<CompletableFuture<Void>> futures = new ArrayList<>(records.size());
+            for (Set<Integer> productIds : records) {
+                futures.add(executor.submit(productIds, this::simulateTransaction));
+            }
+            CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).get(5, TimeUnit.MINUTES);
+            return System.nanoTime() - start;
+        } finally {
+            executor.destroy();
+        }
+    }
+
+    private void simulateTransaction() {
+        try {
+            connectionPool.acquire();
+            try {
+                Thread.sleep(DB_WAIT_MILLIS);
+            } finally {
+                connectionPool.release();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private List<Set<Integer>> generateRecords() {
+        Random random = new Random(42);
+        List<Set<Integer>> records = new ArrayList<>(RECORDS);
+        for (int i = 0; i < RECORDS; i++) {
+            records.add(Set.of(random.nextInt(PRODUCTS), PRODUCTS + random.nextInt(PRODUCTS)));
+        }
+        return records;
+    }
+
+    private void report(String model, long elapsedNanos) {
+        double seconds = elapsedNanos / 1_000_000_000d;
+        System.out.printf("%-32s %8.0f msg/s (%d records in %.2fs)%n",
+                model, RECORDS / seconds, RECORDS, seconds);
+    }
+}
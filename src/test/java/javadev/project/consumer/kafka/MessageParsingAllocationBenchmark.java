@@ -0,0 +1,97 @@
+package javadev.project.consumer.kafka;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import javadev.project.consumer.dto.TransactionRequestDTO;
+import javadev.project.consumer.exception.BusinessException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Compares bytes allocated per message by the String-based parse path and
+ * the byte[] path through TransactionRequestDeserializer, and by rejecting
+ * malformed messages
+ *
+ * Run with: ./mvnw test -Dtest=MessageParsingAllocationBenchmark -Dbenchmark=true
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class MessageParsingAllocationBenchmark {
+
+    private static final int WARMUP = 50_000;
+    private static final int ITERATIONS = 200_000;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private final TransactionRequestDeserializer deserializer = new TransactionRequestDeserializer(objectMapper);
+
+    @Test
+    void compareAllocationPerMessage() throws Exception {
+        for (int items : new int[] { 1, 10, 100 }) {
+            byte[] payload = payload(items);
+            report("String path, " + items + " items", measure(() -> stringPath(payload)));
+            report("byte[] path, " + items + " items", measure(() -> deserializer.deserialize(null, payload)));
+        }
+        byte[] malformed = "{\"transaction_date\":[2026,2,13],\"items\":[{\"product_id\":}]}"
+                .getBytes(StandardCharsets.UTF_8);
+        report("rejected", measure(() -> reject(malformed)));
+    }
+
+    private BusinessException reject(byte[] payload) {
+        try {
+            deserializer.deserialize(null, payload);
+            throw new AssertionError("Malformed message was parsed");
+        } catch (BusinessException e) {
+            return e;
+        }
+    }
+
+    /**
+     * Previous path: StringDeserializer, isValidJsonFormat, readValue(String)
+     */
+    private TransactionRequestDTO stringPath(byte[] payload) throws Exception {
+        String message = new String(payload, StandardCharsets.UTF_8);
+        if (message.trim().isEmpty()) {
+            return null;
+        }
+        String trimmed = message.trim();
+        if (!trimmed.startsWith("{") || !trimmed.endsWith("}")) {
+            return null;
+        }
+        return objectMapper.readValue(message, TransactionRequestDTO.class);
+    }
+
+    private long measure(ParseCall call) throws Exception {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        for (int i = 0; i < WARMUP; i++) {
+            call.parse();
+        }
+        long threadId = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < ITERATIONS; i++) {
+            call.parse();
+        }
+        return (threads.getThreadAllocatedBytes(threadId) - before) / ITERATIONS;
+    }
+
+    private static byte[] payload(int items) {
+        StringBuilder sb = new StringBuilder("{\"transaction_date\":[2026,2,13],\"items\":[");
+        for (int i = 0; i < items; i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append("{\"product_id\":").append(i + 1).append(",\"qty\":").append(i % 5 + 1).append('}');
+        }
+        return sb.append("]}").toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void report(String path, long bytesPerMessage) {
+        System.out.printf("%-24s %8d bytes/message%n", path, bytesPerMessage);
+    }
+
+    @FunctionalInterface
+    private interface ParseCall {
+        Object parse() throws Exception;
+    }
+}
@@ -0,0 +1,64 @@
+package javadev.project.consumer.kafka;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProductKeyedExecutorTests {
+
+    private final ProductKeyedExecutor executor = new ProductKeyedExecutor(Executors.newFixedThreadPool(4), 16);
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        executor.destroy();
+    }
+
+    @Test
+    void tasksSharingProductRunInOrder() throws Exception {
+        List<Integer> order = new CopyOnWriteArrayList<>();
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<Void> first = executor.submit(Set.of(1, 2), () -> {
+            await(release);
+            order.add(1);
+        });
+        CompletableFuture<Void> second = executor.submit(Set.of(2), () -> order.add(2));
+
+        release.countDown();
+        CompletableFuture.allOf(first, second).get(5, TimeUnit.SECONDS);
+
+        assertThat(order).containsExactly(1, 2);
+    }
+
+    @Test
+    void tasksWithDisjointProductsRunConcurrently() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<Void> blocked = executor.submit(Set.of(1), () -> await(release));
+        CompletableFuture<Void> independent = executor.submit(Set.of(3), () -> {
+        });
+
+        independent.get(5, TimeUnit.SECONDS);
+        assertThat(blocked).isNotDone();
+
+        release.countDown();
+        blocked.get(5, TimeUnit.SECONDS);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package javadev.project.consumer.kafka;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Synthetic sales transaction stream for load tests
+ * Products are drawn from a Zipf distribution over the given product IDs
+ * (the first ID is the most popular), each message carries 1 to
+ * maxItemsPerMessage distinct products and a unique message ID, and a
+ * configurable share of messages is malformed: truncated JSON or an invalid
+ * transaction date
+ */
+class SalesLoadGenerator {
+
+    private final List<Integer> productIds;
+    private final int maxItemsPerMessage;
+    private final double malformedRatio;
+    private final double[] cumulative;
+    private final Random random;
+    private final LocalDate transactionDate = LocalDate.now();
+
+    /**
+     * @param productIds         Product IDs, most popular first
+     * @param zipfExponent       Zipf exponent; 0 is uniform, around 1 is a
+     *                           typical retail long tail
+     * @param maxItemsPerMessage Upper bound of distinct items per message
+     * @param malformedRatio     Share of malformed messages, 0 to 1
+     * @param seed               Random seed, for repeatable streams
+     */
+    SalesLoadGenerator(List<Integer> productIds, double zipfExponent, int maxItemsPerMessage,
+            double malformedRatio, long seed) {
+        this.productIds = productIds;
+        this.maxItemsPerMessage = Math.min(maxItemsPerMessage, productIds.size());
+        this.malformedRatio = malformedRatio;
+        this.random = new Random(seed);
+
+        cumulative = new double[productIds.size()];
+        double sum = 0;
+        for (int rank = 0; rank < cumulative.length; rank++) {
+            sum += 1 / Math.pow(rank + 1, zipfExponent);
+            cumulative[rank] = sum;
+        }
+        for (int rank = 0; rank < cumulative.length; rank++) {
+            cumulative[rank] /= sum;
+        }
+    }
+
+    /**
+     * Generate the next message payload
+     *
+     * @return JSON payload as sent by the producer
+     */
+    byte[] next() {
+        if (random.nextDouble() < malformedRatio) {
+            return malformed().getBytes(StandardCharsets.UTF_8);
+        }
+
+        int items = 1 + random.nextInt(maxItemsPerMessage);
+        int[] chosen = new int[items];
+        StringBuilder json = new StringBuilder(64 + items * 32)
+                .append("{\"message_id\":\"").append(UUID.randomUUID())
+                .append("\",\"transaction_date\":\"").append(transactionDate)
+                .append("\",\"items\":[");
+        for (int i = 0; i < items; i++) {
+            chosen[i] = nextDistinctProduct(chosen, i);
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"product_id\":").append(chosen[i])
+                    .append(",\"qty\":").append(1 + random.nextInt(3)).append('}');
+        }
+        return json.append("]}").toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private int nextDistinctProduct(int[] chosen, int count) {
+        while (true) {
+            int productId = productIds.get(sampleRank());
+            boolean duplicate = false;
+            for (int i = 0; i < count && !duplicate; i++) {
+                duplicate = chosen[i] == productId;
+            }
+            if (!duplicate) {
+                return productId;
+            }
+        }
+    }
+
+    private int sampleRank() {
+        double u = random.nextDouble();
+        int low = 0;
+        int high = cumulative.length - 1;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (cumulative[mid] < u) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private String malformed() {
+        if (random.nextBoolean()) {
+            return "{\"message_id\":\"" + UUID.randomUUID() + "\",\"transaction_date\":\"" + transactionDate
+                    + "\",\"items\":[{\"product_id\":";
+        }
+        return "{\"message_id\":\"" + UUID.randomUUID() + "\",\"transaction_date\":\"2026-13-45\","
+                + "\"items\":[{\"product_id\":" + productIds.get(0) + ",\"qty\":1}]}";
+    }
+}
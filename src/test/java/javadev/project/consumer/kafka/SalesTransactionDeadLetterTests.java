@@ -0,0 +1,109 @@
+package javadev.project.consumer.kafka;
+
+import javadev.project.consumer.configuration.KafkaRetryConfig;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Routes failed sales transactions through an in-JVM embedded broker
+ * Permanent failures must reach the dead-letter topic with the business error
+ * code header
+ */
+@SpringBootTest(properties = {
+        "spring.main.web-application-type=none",
+        "spring.datasource.url=jdbc:h2:mem:dead-letter;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "sales.rollup.enabled=false",
+        "spring.kafka.consumer.bootstrap-servers=${spring.embedded.kafka.brokers}",
+        "spring.kafka.consumer.group-id=dead-letter-test",
+        "spring.kafka.consumer.auto-offset-reset=earliest",
+        "kafka.topic.sales-transaction=" + SalesTransactionDeadLetterTests.TOPIC,
+        "kafka.retry.initial-interval-ms=100",
+        "kafka.retry.max-interval-ms=200"
+})
+@EmbeddedKafka(partitions = 1, topics = SalesTransactionDeadLetterTests.TOPIC)
+class SalesTransactionDeadLetterTests {
+
+    static final String TOPIC = "sales-transaction-test";
+    private static final String DLT_TOPIC = TOPIC + KafkaRetryConfig.DEAD_LETTER_SUFFIX;
+
+    @Autowired
+    private EmbeddedKafkaBroker embeddedKafka;
+
+    @Test
+    void unknownProductGoesStraightToDeadLetterTopic() {
+        String message = "{\"transaction_date\":\"2026-02-13\",\"items\":[{\"product_id\":999,\"qty\":1}]}";
+        send(message);
+
+        ConsumerRecord<String, String> record = readDeadLetter(message);
+        assertThat(header(record, KafkaRetryConfig.ERROR_CODE_HEADER)).isEqualTo("PRD001");
+    }
+
+    @Test
+    void malformedJsonGoesStraightToDeadLetterTopic() {
+        String message = "{\"transaction_date\":\"2026-02-13\",\"items\":[{\"product_id\":}]}";
+        send(message);
+
+        ConsumerRecord<String, String> record = readDeadLetter(message);
+        assertThat(header(record, KafkaRetryConfig.ERROR_CODE_HEADER)).isEqualTo("KFK001");
+    }
+
+    @Test
+    void nonJsonMessageGoesStraightToDeadLetterTopic() {
+        String message = "not a sales transaction";
+        send(message);
+
+        ConsumerRecord<String, String> record = readDeadLetter(message);
+        assertThat(header(record, KafkaRetryConfig.ERROR_CODE_HEADER)).isEqualTo("KFK001");
+    }
+
+    private void send(String message) {
+        Map<String, Object> props = KafkaTestUtils.producerProps(embeddedKafka);
+        KafkaTemplate<String, String> template = new KafkaTemplate<>(
+                new DefaultKafkaProducerFactory<>(props, new StringSerializer(), new StringSerializer()));
+        template.send(new ProducerRecord<>(TOPIC, message)).join();
+        template.destroy();
+    }
+
+    private ConsumerRecord<String, String> readDeadLetter(String message) {
+        Map<String, Object> props = KafkaTestUtils.consumerProps(embeddedKafka, "dlt-reader-" + System.nanoTime(), false);
+        try (Consumer<String, String> consumer = new DefaultKafkaConsumerFactory<>(
+                props, new StringDeserializer(), new StringDeserializer()).createConsumer()) {
+            embeddedKafka.consumeFromAnEmbeddedTopic(consumer, DLT_TOPIC);
+            long deadline = System.currentTimeMillis() + 30_000;
+            while (System.currentTimeMillis() < deadline) {
+                for (ConsumerRecord<String, String> record : KafkaTestUtils.getRecords(consumer, Duration.ofSeconds(5))) {
+                    if (message.equals(record.value())) {
+                        return record;
+                    }
+                }
+            }
+        }
+        throw new AssertionError("Message did not reach " + DLT_TOPIC + ": " + message);
+    }
+
+    private static String header(ConsumerRecord<String, String> record, String name) {
+        Header header = record.headers().lastHeader(name);
+        return header == null ? null : new String(header.value(), StandardCharsets.UTF_8);
+    }
+}
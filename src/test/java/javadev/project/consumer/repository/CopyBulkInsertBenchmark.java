@@ -0,0 +1,135 @@
+package javadev.project.consumer.repository;
+
+import jakarta.persistence.EntityManager;
+import javadev.project.consumer.entity.product;
+import javadev.project.consumer.entity.stockLog;
+import javadev.project.consumer.entity.transactionDetail;
+import javadev.project.consumer.entity.transactionHistory;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compares JPA batched inserts with COPY for transaction detail and stock log
+ * rows at 1k, 10k and 100k rows
+ * Needs a PostgreSQL database created with database-setup.sql; all rows are
+ * rolled back at the end of the test
+ *
+ * Run with: ./mvnw test -Dtest=CopyBulkInsertBenchmark -Dbenchmark=true
+ * -Dbenchmark.jdbc-url=jdbc:postgresql://localhost:5432/sales_db
+ * -Dbenchmark.jdbc-username=... -Dbenchmark.jdbc-password=...
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@DataJpaTest(properties = {
+        "spring.test.database.replace=none",
+        "spring.datasource.url=${benchmark.jdbc-url:jdbc:postgresql://localhost:5432/sales_db}",
+        "spring.datasource.username=${benchmark.jdbc-username:postgres}",
+        "spring.datasource.password=${benchmark.jdbc-password:postgres}",
+        "spring.jpa.hibernate.ddl-auto=none",
+        "spring.jpa.properties.hibernate.jdbc.batch_size=50",
+        "spring.jpa.properties.hibernate.order_inserts=true"
+})
+@Import(CopyBulkInsertRepository.class)
+class CopyBulkInsertBenchmark {
+
+    private static final int[] ROW_COUNTS = { 1_000, 10_000, 100_000 };
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionDetailRepository transactionDetailRepository;
+
+    @Autowired
+    private StockLogRepository stockLogRepository;
+
+    @Autowired
+    private CopyBulkInsertRepository copyBulkInsertRepository;
+
+    @Test
+    void compareJpaAndCopy() {
+        product entity = product.builder()
+                .sku("BENCH-" + System.nanoTime())
+                .productName("Benchmark product")
+                .currentStock(0)
+                .price(BigDecimal.valueOf(1000))
+                .build();
+        entityManager.persist(entity);
+        transactionHistory transaction = transactionHistory.builder()
+                .transactionDate(LocalDate.now())
+                .totalPrice(BigDecimal.ZERO)
+                .build();
+        entityManager.persist(transaction);
+        entityManager.flush();
+
+        // Warm up both paths
+        runJpa(transaction, entity, 1_000);
+        runCopy(transaction, entity, 1_000);
+
+        for (int rows : ROW_COUNTS) {
+            long jpaNanos = runJpa(transaction, entity, rows);
+            long copyNanos = runCopy(transaction, entity, rows);
+            System.out.printf("%,8d rows: JPA %,10.1f ms (%,10.0f rows/s)   COPY %,10.1f ms (%,10.0f rows/s)%n",
+                    rows,
+                    jpaNanos / 1_000_000d, rows * 1_000_000_000d / jpaNanos,
+                    copyNanos / 1_000_000d, rows * 1_000_000_000d / copyNanos);
+        }
+    }
+
+    private long runJpa(transactionHistory transaction, product product, int rows) {
+        List<transactionDetail> details = details(transaction, product, rows / 2);
+        List<stockLog> logs = stockLogs(product, rows / 2);
+
+        long start = System.nanoTime();
+        transactionDetailRepository.saveAll(details);
+        stockLogRepository.saveAll(logs);
+        entityManager.flush();
+        long elapsed = System.nanoTime() - start;
+
+        entityManager.clear();
+        return elapsed;
+    }
+
+    private long runCopy(transactionHistory transaction, product product, int rows) {
+        List<transactionDetail> details = details(transaction, product, rows / 2);
+        List<stockLog> logs = stockLogs(product, rows / 2);
+
+        long start = System.nanoTime();
+        copyBulkInsertRepository.copyTransactionDetails(details);
+        copyBulkInsertRepository.copyStockLogs(logs);
+        return System.nanoTime() - start;
+    }
+
+    private List<transactionDetail> details(transactionHistory transaction, product product, int count) {
+        List<transactionDetail> details = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            details.add(transactionDetail.builder()
+                    .transactionHistory(transaction)
+                    .product(product)
+                    .qty(1)
+                    .price(product.getPrice())
+                    .totalPrice(product.getPrice())
+                    .build());
+        }
+        return details;
+    }
+
+    private List<stockLog> stockLogs(product product, int count) {
+        List<stockLog> logs = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            logs.add(stockLog.builder()
+                    .product(product)
+                    .quantityChange(-1)
+                    .logType("SALE")
+                    .build());
+        }
+        return logs;
+    }
+}
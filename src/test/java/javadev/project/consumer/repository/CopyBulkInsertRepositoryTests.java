@@ -0,0 +1,83 @@
+package javadev.project.consumer.repository;
+
+import jakarta.persistence.EntityManager;
+import javadev.project.consumer.entity.product;
+import javadev.project.consumer.entity.stockLog;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifies that COPY rows reserve IDs from the pooled sequences in blocks:
+ * one nextval per 50 rows, with no overlap with IDs handed out by Hibernate
+ */
+@DataJpaTest(properties = "sales.rollup.enabled=false")
+@Import(CopyBulkInsertRepository.class)
+class CopyBulkInsertRepositoryTests {
+
+    private static final String SEQUENCE = CopyBulkInsertRepository.STOCK_LOG_SEQUENCE;
+    private static final int BLOCK = CopyBulkInsertRepository.ID_BLOCK_SIZE;
+
+    @Autowired
+    private CopyBulkInsertRepository copyBulkInsertRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void sequenceAdvancesByRowCountRoundedUpToBlocks() {
+        // Skip the short first block of a fresh sequence
+        copyBulkInsertRepository.reserveIds(SEQUENCE, 1);
+
+        int before = copyBulkInsertRepository.reserveIds(SEQUENCE, 1)[0];
+        int[] ids = copyBulkInsertRepository.reserveIds(SEQUENCE, 120);
+        int after = copyBulkInsertRepository.reserveIds(SEQUENCE, 1)[0];
+
+        // 120 rows take 3 blocks, not 120 nextval calls
+        assertThat(after - before).isEqualTo(4 * BLOCK);
+        assertThat(ids).hasSize(120);
+        assertThat(ids[0]).isEqualTo(before + BLOCK);
+        for (int i = 1; i < ids.length; i++) {
+            assertThat(ids[i]).isEqualTo(ids[i - 1] + 1);
+        }
+    }
+
+    @Test
+    void reservedIdsDoNotOverlapHibernateIds() {
+        product entity = product.builder()
+                .sku("SKU-COPY-IDS")
+                .productName("COPY ID product")
+                .currentStock(0)
+                .price(BigDecimal.valueOf(1000))
+                .build();
+        entityManager.persist(entity);
+
+        List<Integer> ids = new ArrayList<>();
+        for (int round = 0; round < 3; round++) {
+            for (int i = 0; i < 30; i++) {
+                stockLog log = stockLog.builder()
+                        .product(entity)
+                        .quantityChange(-1)
+                        .logType("SALE")
+                        .build();
+                entityManager.persist(log);
+                ids.add(log.getId());
+            }
+            Arrays.stream(copyBulkInsertRepository.reserveIds(SEQUENCE, 70)).forEach(ids::add);
+        }
+
+        Set<Integer> distinct = new HashSet<>(ids);
+        assertThat(distinct).hasSize(ids.size());
+        assertThat(distinct).allMatch(id -> id > 0);
+    }
+}
@@ -0,0 +1,141 @@
+package javadev.project.consumer.repository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * Compares date-range queries on a plain and a monthly partitioned copy of
+ * transaction_history as the data ages
+ * Loads one month at a time (default 250,000 rows per month, 24 months, so
+ * 6 million rows per table) and after every quarter times the queries the
+ * repositories issue: the last 7 days and the last full month
+ * Works in a scratch schema that is dropped afterwards
+ *
+ * Run with: ./mvnw test -Dtest=PartitionPruningBenchmark -Dbenchmark=true
+ * -Dbenchmark.jdbc-url=jdbc:postgresql://localhost:5432/sales_db
+ * -Dbenchmark.jdbc-username=... -Dbenchmark.jdbc-password=...
+ * [-Dbenchmark.rows-per-month=250000] [-Dbenchmark.months=24]
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class PartitionPruningBenchmark {
+
+    private static final String SCHEMA = "partition_bench";
+    private static final int RUNS = 7;
+
+    private final int rowsPerMonth = Integer.getInteger("benchmark.rows-per-month", 250_000);
+    private final int months = Integer.getInteger("benchmark.months", 24);
+    private final LocalDate firstMonth = LocalDate.now().withDayOfMonth(1).minusMonths(months - 1);
+
+    private Connection connection;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        connection = DriverManager.getConnection(
+                System.getProperty("benchmark.jdbc-url", "jdbc:postgresql://localhost:5432/sales_db"),
+                System.getProperty("benchmark.jdbc-username", "postgres"),
+                System.getProperty("benchmark.jdbc-password", "postgres"));
+
+        execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+        execute("CREATE SCHEMA " + SCHEMA);
+        execute("CREATE TABLE " + SCHEMA + ".history_plain (id BIGINT, transaction_date DATE NOT NULL, "
+                + "total_price DECIMAL(15,2), PRIMARY KEY (id))");
+        execute("CREATE INDEX ON " + SCHEMA + ".history_plain (transaction_date)");
+        execute("CREATE TABLE " + SCHEMA + ".history_partitioned (id BIGINT, transaction_date DATE NOT NULL, "
+                + "total_price DECIMAL(15,2), PRIMARY KEY (id, transaction_date)) "
+                + "PARTITION BY RANGE (transaction_date)");
+        execute("CREATE INDEX ON " + SCHEMA + ".history_partitioned (transaction_date)");
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+        connection.close();
+    }
+
+    @Test
+    void rangeQueriesStayFlatAsDataAges() throws SQLException {
+        System.out.printf("%8s %12s | %14s %14s | %14s %14s%n",
+                "months", "rows", "plain 7d ms", "part. 7d ms", "plain 1m ms", "part. 1m ms");
+
+        for (int m = 0; m < months; m++) {
+            loadMonth(firstMonth.plusMonths(m), (long) m * rowsPerMonth);
+
+            int loaded = m + 1;
+            if (loaded % 3 == 0 || loaded == months) {
+                execute("ANALYZE " + SCHEMA + ".history_plain");
+                execute("ANALYZE " + SCHEMA + ".history_partitioned");
+
+                LocalDate lastMonth = firstMonth.plusMonths(m);
+                LocalDate lastDay = lastMonth.plusMonths(1).minusDays(1);
+                System.out.printf("%8d %,12d | %14.2f %14.2f | %14.2f %14.2f%n",
+                        loaded, (long) loaded * rowsPerMonth,
+                        timeRange("history_plain", lastDay.minusDays(6), lastDay),
+                        timeRange("history_partitioned", lastDay.minusDays(6), lastDay),
+                        timeRange("history_plain", lastMonth, lastDay),
+                        timeRange("history_partitioned", lastMonth, lastDay));
+            }
+        }
+    }
+
+    private void loadMonth(LocalDate month, long firstId) throws SQLException {
+        LocalDate next = month.plusMonths(1);
+        execute(String.format("CREATE TABLE %s.history_partitioned_%s PARTITION OF %s.history_partitioned "
+                + "FOR VALUES FROM ('%s') TO ('%s')",
+                SCHEMA, month.toString().substring(0, 7).replace("-", "_"), SCHEMA, month, next));
+
+        int days = month.lengthOfMonth();
+        for (String table : new String[] { "history_plain", "history_partitioned" }) {
+            try (PreparedStatement statement = connection.prepareStatement(String.format(
+                    "INSERT INTO %s.%s (id, transaction_date, total_price) "
+                            + "SELECT ? + g, ?::date + (g %% ?), (g %% 1000) * 1000 "
+                            + "FROM generate_series(1, ?) g",
+                    SCHEMA, table))) {
+                statement.setLong(1, firstId);
+                statement.setDate(2, Date.valueOf(month));
+                statement.setInt(3, days);
+                statement.setInt(4, rowsPerMonth);
+                statement.executeUpdate();
+            }
+        }
+    }
+
+    /**
+     * Median time of the aggregate the daily report runs over a date range
+     */
+    private double timeRange(String table, LocalDate from, LocalDate to) throws SQLException {
+        String sql = String.format("SELECT COUNT(*), SUM(total_price) FROM %s.%s "
+                + "WHERE transaction_date BETWEEN ? AND ?", SCHEMA, table);
+        double[] millis = new double[RUNS];
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setDate(1, Date.valueOf(from));
+            statement.setDate(2, Date.valueOf(to));
+            for (int i = 0; i < RUNS; i++) {
+                long start = System.nanoTime();
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    resultSet.next();
+                }
+                millis[i] = (System.nanoTime() - start) / 1_000_000d;
+            }
+        }
+        Arrays.sort(millis);
+        return millis[RUNS / 2];
+    }
+
+    private void execute(String sql) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package javadev.project.consumer.repository;
+
+import jakarta.persistence.EntityManager;
+import javadev.project.consumer.dto.StockLogView;
+import javadev.project.consumer.dto.TransactionHistoryView;
+import javadev.project.consumer.entity.product;
+import javadev.project.consumer.entity.stockLog;
+import javadev.project.consumer.entity.transactionHistory;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.data.domain.Limit;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifies that the stream and keyset page variants return the same rows as
+ * the entity range queries, without loading entities
+ */
+@DataJpaTest(properties = "sales.rollup.enabled=false")
+class RangeScanQueryTests {
+
+    private static final int PAGE_SIZE = 7;
+    private static final LocalDate START = LocalDate.of(2026, 2, 1);
+    private static final LocalDate END = LocalDate.of(2026, 2, 10);
+    private static final LocalDateTime EPOCH = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private StockLogRepository stockLogRepository;
+
+    @Autowired
+    private TransactionHistoryRepository transactionHistoryRepository;
+
+    @BeforeEach
+    void setUp() {
+        product entity = product.builder()
+                .sku("SKU-SCAN")
+                .productName("Range scan product")
+                .currentStock(0)
+                .price(BigDecimal.valueOf(1000))
+                .build();
+        entityManager.persist(entity);
+
+        // 30 days of data, 10 of them inside the range; inserted newest first
+        // so that ID order differs from date order, with stock logs sharing a
+        // creation time in pairs
+        for (int day = 29; day >= 0; day--) {
+            LocalDate date = START.minusDays(10).plusDays(day);
+            entityManager.persist(transactionHistory.builder()
+                    .transactionDate(date)
+                    .totalPrice(BigDecimal.valueOf(day))
+                    .build());
+            stockLog log = stockLog.builder()
+                    .product(entity)
+                    .quantityChange(day % 2 == 0 ? -1 : 5)
+                    .logType(day % 2 == 0 ? "SALE" : "RESTOCK")
+                    .build();
+            entityManager.persist(log);
+            entityManager.flush();
+            // created_at is set on insert and not updatable through the entity
+            entityManager.createNativeQuery("UPDATE stock_log SET created_at = ?1 WHERE id = ?2")
+                    .setParameter(1, date.minusDays(day % 2).atTime(12, 0))
+                    .setParameter(2, log.getId())
+                    .executeUpdate();
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void stockLogKeysetPagesCoverTheRange() {
+        LocalDateTime from = START.atStartOfDay();
+        LocalDateTime to = END.atTime(23, 59, 59);
+        List<Integer> expected = stockLogRepository.findByCreatedAtBetween(from, to).stream()
+                .sorted(Comparator.comparing(stockLog::getCreatedAt).thenComparing(stockLog::getId))
+                .map(stockLog::getId)
+                .toList();
+        entityManager.clear();
+
+        List<Integer> paged = new ArrayList<>();
+        List<StockLogView> page;
+        LocalDateTime afterCreatedAt = from;
+        int afterId = 0;
+        do {
+            page = stockLogRepository.findPageByCreatedAtBetween(from, to, afterCreatedAt, afterId,
+                    Limit.of(PAGE_SIZE));
+            page.forEach(row -> paged.add(row.getId()));
+            if (!page.isEmpty()) {
+                afterCreatedAt = page.get(page.size() - 1).getCreatedAt();
+                afterId = page.get(page.size() - 1).getId();
+            }
+        } while (page.size() == PAGE_SIZE);
+
+        assertThat(paged).hasSize(10).isEqualTo(expected);
+        try (Stream<StockLogView> rows = stockLogRepository.streamByCreatedAtBetween(from, to)) {
+            assertThat(rows.map(StockLogView::getId)).containsExactlyElementsOf(expected);
+        }
+        assertThat(entityManager.unwrap(Session.class).getStatistics().getEntityCount()).isZero();
+    }
+
+    @Test
+    void stockLogByTypeVariantsAgree() {
+        List<Integer> expected = stockLogRepository.findByLogType("SALE").stream()
+                .sorted(Comparator.comparing(stockLog::getCreatedAt).thenComparing(stockLog::getId))
+                .map(stockLog::getId)
+                .toList();
+        entityManager.clear();
+
+        List<StockLogView> first = stockLogRepository.findPageByLogType("SALE", EPOCH, 0, Limit.of(10));
+        StockLogView last = first.get(first.size() - 1);
+        List<StockLogView> second = stockLogRepository.findPageByLogType(
+                "SALE", last.getCreatedAt(), last.getId(), Limit.of(10));
+
+        assertThat(first).hasSize(10);
+        assertThat(second).hasSize(5);
+        assertThat(Stream.concat(first.stream(), second.stream()).map(StockLogView::getId))
+                .containsExactlyElementsOf(expected);
+        try (Stream<StockLogView> rows = stockLogRepository.streamByLogType("SALE")) {
+            assertThat(rows).allSatisfy(row -> assertThat(row.getQuantityChange()).isEqualTo(-1));
+        }
+    }
+
+    @Test
+    void transactionHistoryVariantsAgree() {
+        List<Integer> expected = transactionHistoryRepository.findByTransactionDateBetween(START, END).stream()
+                .sorted(Comparator.comparing(transactionHistory::getTransactionDate)
+                        .thenComparing(transactionHistory::getId))
+                .map(transactionHistory::getId)
+                .toList();
+        entityManager.clear();
+
+        List<TransactionHistoryView> first = transactionHistoryRepository
+                .findPageByTransactionDateBetween(START, END, START, 0, Limit.of(PAGE_SIZE));
+        TransactionHistoryView last = first.get(first.size() - 1);
+        List<TransactionHistoryView> second = transactionHistoryRepository
+                .findPageByTransactionDateBetween(START, END, last.getTransactionDate(), last.getId(),
+                        Limit.of(PAGE_SIZE));
+
+        assertThat(Stream.concat(first.stream(), second.stream()).map(TransactionHistoryView::getId))
+                .containsExactlyElementsOf(expected);
+        try (Stream<TransactionHistoryView> rows = transactionHistoryRepository
+                .streamByTransactionDateBetween(START, END)) {
+            assertThat(rows).allSatisfy(row -> assertThat(row.getTransactionDate()).isBetween(START, END));
+        }
+    }
+}
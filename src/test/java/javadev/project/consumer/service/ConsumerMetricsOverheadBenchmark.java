@@ -0,0 +1,113 @@
+package javadev.project.consumer.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import javadev.project.consumer.dto.TransactionRequestDTO;
+import javadev.project.consumer.kafka.TransactionRequestDeserializer;
+import javadev.project.consumer.service.ConsumerMetrics.Outcome;
+import javadev.project.consumer.service.ConsumerMetrics.Stage;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Measures the cost of the per-message metric updates against the CPU-only
+ * part of message handling (parsing a 10-item message)
+ * Every message records what the pipeline records: parse, validate, persist
+ * and commit timers, items, outcome and end-to-end latency. Real messages
+ * also spend milliseconds in the database, so this is the worst case.
+ *
+ * Run with: ./mvnw test -Dtest=ConsumerMetricsOverheadBenchmark -Dbenchmark=true
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ConsumerMetricsOverheadBenchmark {
+
+    private static final int WARMUP = 200_000;
+    private static final int ITERATIONS = 1_000_000;
+    private static final int THREADS = 8;
+
+    private final TransactionRequestDeserializer deserializer =
+            new TransactionRequestDeserializer(new ObjectMapper().registerModule(new JavaTimeModule()));
+    private final PrometheusMeterRegistry registry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+    private final ConsumerMetrics metrics = new ConsumerMetrics(registry, new ProductCatalogCache(10_000, 300));
+    private final byte[] payload = payload(10);
+
+    @Test
+    void compareWithAndWithoutMetrics() throws Exception {
+        for (int threads : new int[] { 1, THREADS }) {
+            run(threads, false, WARMUP);
+            run(threads, true, WARMUP);
+
+            double plain = run(threads, false, ITERATIONS);
+            double instrumented = run(threads, true, ITERATIONS);
+            System.out.printf("%d thread(s): without %,8.0f ns/msg, with %,8.0f ns/msg, overhead %,6.0f ns (%.1f%%)%n",
+                    threads, plain, instrumented, instrumented - plain, (instrumented - plain) * 100 / plain);
+        }
+
+        long start = System.nanoTime();
+        int length = registry.scrape().length();
+        System.out.printf("scrape: %,d bytes in %.2f ms%n", length, (System.nanoTime() - start) / 1_000_000d);
+    }
+
+    /**
+     * Average wall time per message, over all threads
+     */
+    private double run(int threads, boolean instrumented, int iterations) throws Exception {
+        int perThread = iterations / threads;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            long start = System.nanoTime();
+            List<Future<Integer>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    int items = 0;
+                    for (int i = 0; i < perThread; i++) {
+                        items += handle(instrumented);
+                    }
+                    return items;
+                }));
+            }
+            for (Future<Integer> future : futures) {
+                future.get();
+            }
+            return (System.nanoTime() - start) / (double) (perThread * threads) * threads;
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private int handle(boolean instrumented) {
+        long start = System.nanoTime();
+        TransactionRequestDTO request = deserializer.deserialize(null, payload);
+        if (instrumented) {
+            long parsed = System.nanoTime();
+            metrics.recordStage(Stage.PARSE, parsed - start);
+            metrics.recordStage(Stage.VALIDATE, 1_000);
+            metrics.recordItems(request.getItems().size());
+            metrics.recordStage(Stage.PERSIST, 1_000);
+            metrics.recordStage(Stage.COMMIT, 1_000);
+            metrics.recordOutcome(Outcome.PROCESSED);
+            metrics.recordEndToEnd(System.currentTimeMillis() - 5);
+        }
+        return request.getItems().size();
+    }
+
+    private static byte[] payload(int items) {
+        StringBuilder sb = new StringBuilder("{\"transaction_date\":\"2026-02-13\",\"items\":[");
+        for (int i = 0; i < items; i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append("{\"product_id\":").append(i + 1).append(",\"qty\":").append(i % 5 + 1).append('}');
+        }
+        return sb.append("]}").toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,94 @@
+package javadev.project.consumer.service;
+
+import jakarta.persistence.EntityManager;
+import javadev.project.consumer.dto.TransactionItemDTO;
+import javadev.project.consumer.dto.TransactionRequestDTO;
+import javadev.project.consumer.exception.BusinessException;
+import javadev.project.consumer.exception.ErrorCode;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static javadev.project.consumer.service.ProductFixtures.createProduct;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Verifies that a redelivered message the idempotency filter no longer knows
+ * about is reported as a duplicate instead of a retryable failure, and that
+ * expired processed_message rows are cleaned up
+ */
+@TransactionServiceSlice(properties = {
+        // Only the newest message ID is loaded into the filter
+        "idempotency.warmup-size=1",
+        "idempotency.retention-days=7",
+        "idempotency.cleanup.batch-size=2"
+})
+@Import(ProcessedMessageCleanupService.class)
+class IdempotencyServiceTests {
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private ProcessedMessageCleanupService processedMessageCleanupService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void redeliveryOutsideWarmUpWindowIsDuplicate() {
+        Integer productId = createProduct(entityManager, "SKU-REDELIVERY");
+        transactionService.processTransaction(request("message-old", productId));
+        transactionService.processTransaction(request("message-new", productId));
+        idempotencyService.warmUp();
+
+        assertThat(idempotencyService.isDuplicate("message-new")).isTrue();
+        assertThat(idempotencyService.isDuplicate("message-old")).isFalse();
+
+        assertThatThrownBy(() -> transactionService.processTransaction(request("message-old", productId)))
+                .isInstanceOfSatisfying(BusinessException.class, e -> {
+                    assertThat(e.getErrorCode()).isEqualTo(ErrorCode.DUPLICATE_MESSAGE);
+                    assertThat(e.getErrorCode().isRetryable()).isFalse();
+                    assertThat(e.getDetails()).containsEntry("messageId", "message-old");
+                });
+    }
+
+    @Test
+    void cleanupDeletesOnlyExpiredRows() {
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < 5; i++) {
+            insertProcessedMessage(i, "expired-" + i, now.minusDays(8));
+        }
+        insertProcessedMessage(10, "kept", now.minusDays(6));
+
+        assertThat(processedMessageCleanupService.cleanUp()).isEqualTo(5);
+        assertThat(jdbcTemplate.queryForList("SELECT message_id FROM processed_message", String.class))
+                .containsExactly("kept");
+    }
+
+    private void insertProcessedMessage(int id, String messageId, LocalDateTime processedAt) {
+        jdbcTemplate.update("INSERT INTO processed_message (id, message_id, processed_at) VALUES (?, ?, ?)",
+                id, messageId, Timestamp.valueOf(processedAt));
+    }
+
+    private TransactionRequestDTO request(String messageId, Integer productId) {
+        return TransactionRequestDTO.builder()
+                .messageId(messageId)
+                .transactionDate(LocalDate.of(2026, 2, 13))
+                .items(List.of(new TransactionItemDTO(productId, 1)))
+                .build();
+    }
+}
@@ -0,0 +1,50 @@
+package javadev.project.consumer.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class IntIntOpenHashMapTests {
+
+    @Test
+    void keepsAllEntriesAcrossRehash() {
+        IntIntOpenHashMap map = new IntIntOpenHashMap(2);
+        for (int key = 1; key <= 1000; key++) {
+            map.put(key, key * 10);
+        }
+
+        assertThat(map.size()).isEqualTo(1000);
+        for (int key = 1; key <= 1000; key++) {
+            assertThat(map.get(key, -1)).isEqualTo(key * 10);
+        }
+        assertThat(map.containsKey(1001)).isFalse();
+        assertThat(map.get(1001, -1)).isEqualTo(-1);
+    }
+
+    @Test
+    void addToUpdatesExistingEntry() {
+        IntIntOpenHashMap map = new IntIntOpenHashMap(4);
+        map.put(7, 100);
+
+        assertThat(map.addTo(7, -30)).isEqualTo(70);
+        assertThat(map.get(7, 0)).isEqualTo(70);
+        assertThatThrownBy(() -> map.addTo(8, 1)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void supportsZeroKey() {
+        IntIntOpenHashMap map = new IntIntOpenHashMap(4);
+        assertThat(map.containsKey(0)).isFalse();
+
+        map.put(0, 5);
+        map.addTo(0, 2);
+
+        assertThat(map.get(0, -1)).isEqualTo(7);
+        assertThat(map.size()).isEqualTo(1);
+
+        map.clear();
+        assertThat(map.containsKey(0)).isFalse();
+        assertThat(map.size()).isZero();
+    }
+}
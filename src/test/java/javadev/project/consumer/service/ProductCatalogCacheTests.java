@@ -0,0 +1,90 @@
+package javadev.project.consumer.service;
+
+import javadev.project.consumer.dto.ProductCatalogEntry;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProductCatalogCacheTests {
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void secondLookupIsServedFromCache() {
+        ProductCatalogCache cache = new ProductCatalogCache(100, 300);
+
+        cache.getAll(List.of(1, 2), this::load);
+        Map<Integer, ProductCatalogEntry> result = cache.getAll(List.of(1, 2), this::load);
+
+        assertThat(result).containsOnlyKeys(1, 2);
+        assertThat(loads).hasValue(1);
+        assertThat(cache.getMissCount()).isEqualTo(2);
+        assertThat(cache.getHitCount()).isEqualTo(2);
+    }
+
+    @Test
+    void leastRecentlyUsedEntryIsEvictedWhenFull() {
+        ProductCatalogCache cache = new ProductCatalogCache(2, 300);
+
+        cache.getAll(List.of(1, 2), this::load);
+        cache.getAll(List.of(1), this::load);
+        cache.getAll(List.of(3), this::load);
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.getEvictionCount()).isEqualTo(1);
+
+        cache.getAll(List.of(2), this::load);
+        assertThat(loads).hasValue(3);
+    }
+
+    @Test
+    void expiredEntryIsReloaded() {
+        ProductCatalogCache cache = new ProductCatalogCache(100, 0);
+
+        cache.getAll(List.of(1), this::load);
+        cache.getAll(List.of(1), this::load);
+
+        assertThat(loads).hasValue(2);
+        assertThat(cache.getEvictionCount()).isEqualTo(1);
+    }
+
+    @Test
+    void invalidatedEntryIsReloaded() {
+        ProductCatalogCache cache = new ProductCatalogCache(100, 300);
+
+        cache.getAll(List.of(1), this::load);
+        cache.invalidate(1);
+        cache.getAll(List.of(1), this::load);
+
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void valueLoadedDuringInvalidationIsNotCached() {
+        ProductCatalogCache cache = new ProductCatalogCache(100, 300);
+
+        cache.getAll(List.of(1), ids -> {
+            cache.invalidate(1);
+            return load(ids);
+        });
+
+        assertThat(cache.size()).isZero();
+    }
+
+    private Map<Integer, ProductCatalogEntry> load(Collection<Integer> productIds) {
+        loads.incrementAndGet();
+        Map<Integer, ProductCatalogEntry> entries = new HashMap<>();
+        for (Integer productId : productIds) {
+            entries.put(productId, new ProductCatalogEntry(productId, "SKU" + productId,
+                    "Product " + productId, BigDecimal.TEN));
+        }
+        return entries;
+    }
+}
@@ -0,0 +1,33 @@
+package javadev.project.consumer.service;
+
+import jakarta.persistence.EntityManager;
+import javadev.project.consumer.entity.product;
+
+import java.math.BigDecimal;
+
+/**
+ * Products for JPA tests, persisted and flushed so they get an ID
+ */
+final class ProductFixtures {
+
+    static final int DEFAULT_STOCK = 100;
+
+    private ProductFixtures() {
+    }
+
+    static Integer createProduct(EntityManager entityManager, String sku) {
+        return createProduct(entityManager, sku, DEFAULT_STOCK);
+    }
+
+    static Integer createProduct(EntityManager entityManager, String sku, int stock) {
+        product entity = product.builder()
+                .sku(sku)
+                .productName("Product " + sku)
+                .currentStock(stock)
+                .price(BigDecimal.valueOf(1000))
+                .build();
+        entityManager.persist(entity);
+        entityManager.flush();
+        return entity.getId();
+    }
+}
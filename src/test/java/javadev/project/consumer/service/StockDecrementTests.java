@@ -0,0 +1,138 @@
+package javadev.project.consumer.service;
+
+import jakarta.persistence.EntityManager;
+import javadev.project.consumer.dto.BatchResultDTO;
+import javadev.project.consumer.dto.ProductCatalogEntry;
+import javadev.project.consumer.dto.TransactionItemDTO;
+import javadev.project.consumer.dto.TransactionRequestDTO;
+import javadev.project.consumer.exception.BusinessException;
+import javadev.project.consumer.exception.ErrorCode;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static javadev.project.consumer.service.ProductFixtures.createProduct;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Verifies the conditional stock UPDATE, the batch-wide stock decrements and
+ * the retry of deadlocks and serialization failures
+ */
+@TransactionServiceSlice
+@Import(TransactionRetryExecutor.class)
+class StockDecrementTests {
+
+    private static final LocalDate DATE = LocalDate.of(2026, 2, 13);
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private TransactionRetryExecutor retryExecutor;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void updateStockFailsWhenNoRowIsUpdated() {
+        ProductCatalogEntry entry = catalogEntry(createProduct(entityManager, "SKU-DECREMENT", 5));
+
+        productService.updateStock(entry, 3);
+        assertThat(currentStock(entry.getId())).isEqualTo(2);
+
+        // The conditional UPDATE matches no row, stock is left untouched
+        assertThatThrownBy(() -> productService.updateStock(entry, 3))
+                .isInstanceOfSatisfying(BusinessException.class, e -> {
+                    assertThat(e.getErrorCode()).isEqualTo(ErrorCode.INSUFFICIENT_STOCK);
+                    assertThat(e.getDetails()).containsEntry("requiredQty", 3);
+                });
+        assertThat(currentStock(entry.getId())).isEqualTo(2);
+    }
+
+    @Test
+    void batchDecrementsAreSummedAndValidatedAgainstPendingStock() {
+        Integer first = createProduct(entityManager, "SKU-BATCH-1", 10);
+        Integer second = createProduct(entityManager, "SKU-BATCH-2", 10);
+
+        BatchResultDTO result = transactionService.processBatch(List.of(
+                request(new TransactionItemDTO(second, 4), new TransactionItemDTO(first, 3)),
+                request(new TransactionItemDTO(first, 5)),
+                // 10 - 3 - 5 left, although nothing has been decremented yet
+                request(new TransactionItemDTO(first, 5))));
+
+        assertThat(result.getProcessed()).hasSize(2);
+        assertThat(result.getFailures()).containsOnlyKeys(2);
+        assertThat(result.getFailures().get(2).getErrorCode()).isEqualTo(ErrorCode.INSUFFICIENT_STOCK);
+        assertThat(currentStock(first)).isEqualTo(2);
+        assertThat(currentStock(second)).isEqualTo(6);
+    }
+
+    @Test
+    void deadlocksAndSerializationFailuresAreRetried() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        String result = retryExecutor.execute(() -> {
+            int attempt = attempts.incrementAndGet();
+            if (attempt < 3) {
+                throw lockFailure(attempt == 1 ? "40P01" : "40001");
+            }
+            return "committed";
+        });
+
+        assertThat(result).isEqualTo("committed");
+        assertThat(attempts).hasValue(3);
+    }
+
+    @Test
+    void otherFailuresAndExhaustedRetriesAreRethrown() {
+        AtomicInteger attempts = new AtomicInteger();
+        assertThatThrownBy(() -> retryExecutor.execute(() -> {
+            attempts.incrementAndGet();
+            throw lockFailure("23505");
+        })).isInstanceOf(DataIntegrityViolationException.class);
+        assertThat(attempts).hasValue(1);
+
+        attempts.set(0);
+        assertThatThrownBy(() -> retryExecutor.execute(() -> {
+            attempts.incrementAndGet();
+            throw lockFailure("40P01");
+        })).isInstanceOf(DataIntegrityViolationException.class);
+        // transaction.retry.max-attempts defaults to 3
+        assertThat(attempts).hasValue(3);
+    }
+
+    private static RuntimeException lockFailure(String sqlState) {
+        return new DataIntegrityViolationException("Statement failed",
+                new SQLException("Statement failed", sqlState));
+    }
+
+    private int currentStock(Integer productId) {
+        return jdbcTemplate.queryForObject("SELECT current_stock FROM product WHERE id = ?", Integer.class, productId);
+    }
+
+    private static ProductCatalogEntry catalogEntry(Integer productId) {
+        return new ProductCatalogEntry(productId, "SKU-" + productId, "Product " + productId, BigDecimal.valueOf(1000));
+    }
+
+    private static TransactionRequestDTO request(TransactionItemDTO... items) {
+        return TransactionRequestDTO.builder()
+                .transactionDate(DATE)
+                .items(List.of(items))
+                .build();
+    }
+}
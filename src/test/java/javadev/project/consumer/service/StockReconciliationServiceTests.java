@@ -0,0 +1,121 @@
+package javadev.project.consumer.service;
+
+import javadev.project.consumer.dto.StockReconciliationReport;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifies drift detection and correction across several reconciliation
+ * chunks, and that products without an opening balance are not corrected
+ * Chunks run on pool threads with their own connections, so the data is
+ * committed instead of living in a test transaction
+ */
+@DataJpaTest(properties = {
+        "stock.reconciliation.chunk-size=1",
+        "stock.reconciliation.parallelism=2",
+        // The rollup UPSERT is PostgreSQL-specific
+        "sales.rollup.enabled=false"
+})
+@Import(StockReconciliationService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class StockReconciliationServiceTests {
+
+    @Autowired
+    private StockReconciliationService stockReconciliationService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private int nextLogId = 1;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM stock_log");
+        jdbcTemplate.update("DELETE FROM product");
+    }
+
+    @Test
+    void reportsAndCorrectsDrift() {
+        createProduct(1, 7, 10, -3);
+        createProduct(2, 9, 10, -3);
+        // Pending ledger rows are not applied to product yet
+        createProduct(5, 10, 10);
+        addLog(5, -4, true);
+
+        StockReconciliationReport report = stockReconciliationService.reconcile(false);
+
+        assertThat(report.getProductsChecked()).isEqualTo(3);
+        assertThat(report.getLogRowsScanned()).isEqualTo(6);
+        assertThat(report.getDrifts()).singleElement().satisfies(drift -> {
+            assertThat(drift.getProductId()).isEqualTo(2);
+            assertThat(drift.getDrift()).isEqualTo(2);
+        });
+        assertThat(report.getCorrected()).isZero();
+        assertThat(currentStock(2)).isEqualTo(9);
+
+        StockReconciliationReport corrected = stockReconciliationService.reconcile(true);
+
+        assertThat(corrected.getCorrected()).isEqualTo(1);
+        assertThat(currentStock(2)).isEqualTo(7);
+        assertThat(currentStock(5)).isEqualTo(10);
+        assertThat(stockReconciliationService.reconcile(false).getDrifts()).isEmpty();
+    }
+
+    @Test
+    void doesNotCorrectProductsWithoutOpeningBalance() {
+        // Sales were logged, but the stock the product started with was not
+        createProduct(3, 10);
+        addLog(3, -2, false, "SALE");
+        addLog(3, -3, false, "SALE");
+        createProduct(4, 5, 8, -1);
+
+        StockReconciliationReport report = stockReconciliationService.reconcile(true);
+
+        assertThat(report.getDrifts()).hasSize(2);
+        assertThat(report.driftsWithoutBaseline()).isEqualTo(1);
+        assertThat(report.getDrifts().get(0)).satisfies(drift -> {
+            assertThat(drift.getProductId()).isEqualTo(3);
+            assertThat(drift.isBaseline()).isFalse();
+            assertThat(drift.getDrift()).isEqualTo(15);
+        });
+        assertThat(report.getCorrected()).isEqualTo(1);
+        assertThat(currentStock(3)).isEqualTo(10);
+        assertThat(currentStock(4)).isEqualTo(7);
+
+        // The opening balance migration: current stock minus logged movements
+        addLog(3, 15, false, "INITIAL");
+
+        assertThat(stockReconciliationService.reconcile(false).getDrifts()).isEmpty();
+        assertThat(currentStock(3)).isEqualTo(10);
+    }
+
+    private void createProduct(int id, int currentStock, int... movements) {
+        jdbcTemplate.update("INSERT INTO product (id, sku, product_name, current_stock, price) VALUES (?, ?, ?, ?, 1000)",
+                id, "SKU-" + id, "Product " + id, currentStock);
+        for (int movement : movements) {
+            addLog(id, movement, false);
+        }
+    }
+
+    private void addLog(int productId, int quantityChange, boolean ledgerPending) {
+        addLog(productId, quantityChange, ledgerPending, quantityChange > 0 ? "INITIAL" : "SALE");
+    }
+
+    private void addLog(int productId, int quantityChange, boolean ledgerPending, String logType) {
+        jdbcTemplate.update("INSERT INTO stock_log (id, product_id, quantity_change, log_type, movement_count, "
+                + "ledger_pending, created_at) VALUES (?, ?, ?, ?, 1, ?, CURRENT_TIMESTAMP)",
+                nextLogId++, productId, quantityChange, logType, ledgerPending);
+    }
+
+    private int currentStock(int productId) {
+        return jdbcTemplate.queryForObject("SELECT current_stock FROM product WHERE id = ?", Integer.class, productId);
+    }
+}
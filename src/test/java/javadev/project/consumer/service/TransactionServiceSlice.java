@@ -0,0 +1,33 @@
+package javadev.project.consumer.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import javadev.project.consumer.repository.CopyBulkInsertRepository;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.annotation.AliasFor;
+import org.springframework.test.context.TestPropertySource;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * JPA test slice with TransactionService and the beans it writes through
+ * Test classes add their own properties here and further beans with @Import
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@DataJpaTest
+// The rollup UPSERT is PostgreSQL-specific
+@TestPropertySource(properties = "sales.rollup.enabled=false")
+@Import({ TransactionService.class, ProductService.class, ProductCatalogCache.class, IdempotencyService.class,
+        CopyBulkInsertRepository.class, SalesRollupService.class, ConsumerMetrics.class,
+        LogSampler.class, SimpleMeterRegistry.class })
+@interface TransactionServiceSlice {
+
+    @AliasFor(annotation = DataJpaTest.class, attribute = "properties")
+    String[] properties() default {};
+}
@@ -0,0 +1,136 @@
+package javadev.project.consumer.service;
+
+import jakarta.persistence.EntityManager;
+import javadev.project.consumer.dto.TransactionItemDTO;
+import javadev.project.consumer.dto.TransactionRequestDTO;
+import javadev.project.consumer.entity.category;
+import javadev.project.consumer.entity.product;
+import javadev.project.consumer.exception.BusinessException;
+import javadev.project.consumer.exception.ErrorCode;
+import javadev.project.consumer.repository.ProductRepository;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static javadev.project.consumer.service.ProductFixtures.createProduct;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Counts JDBC statements issued while processing one transaction
+ * Verifies that pooled sequences and JDBC batching keep the number of
+ * statements per sale small instead of one INSERT per line item
+ */
+@TransactionServiceSlice(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.jdbc.batch_size=50",
+        "spring.jpa.properties.hibernate.order_inserts=true",
+        "spring.jpa.properties.hibernate.order_updates=true"
+})
+class TransactionServiceStatementCountTests {
+
+    private static final int ITEM_COUNT = 20;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private final List<Integer> productIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < ITEM_COUNT; i++) {
+            productIds.add(createProduct(entityManager, "SKU" + i));
+        }
+        entityManager.clear();
+    }
+
+    @Test
+    void processTransactionUsesBatchedStatements() {
+        List<TransactionItemDTO> items = new ArrayList<>();
+        for (Integer productId : productIds) {
+            items.add(new TransactionItemDTO(productId, 1));
+        }
+        TransactionRequestDTO request = TransactionRequestDTO.builder()
+                .transactionDate(LocalDate.of(2026, 2, 13))
+                .items(items)
+                .build();
+
+        Statistics statistics = statistics();
+        statistics.clear();
+
+        transactionService.processTransaction(request);
+        entityManager.flush();
+
+        // One product query, one conditional stock UPDATE per product, sequence
+        // calls and a handful of batched INSERT/UPDATE statements
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(ITEM_COUNT + 15);
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(1 + 2L * ITEM_COUNT);
+        // Products are read through projections and referenced by proxy
+        assertThat(statistics.getEntityLoadCount()).isZero();
+        assertThat(statistics.getEntityFetchCount()).isZero();
+        assertThat(statistics.getCollectionLoadCount()).isZero();
+    }
+
+    @Test
+    void findByIdReadsOnlyTheProductTable() {
+        category electronics = category.builder().categoryName("Electronics").build();
+        entityManager.persist(electronics);
+        product entity = product.builder()
+                .sku("SKU-LAZY")
+                .productName("Lazy product")
+                .category(electronics)
+                .currentStock(1)
+                .price(BigDecimal.ONE)
+                .build();
+        entityManager.persist(entity);
+        entityManager.flush();
+        entityManager.clear();
+
+        Statistics statistics = statistics();
+        statistics.clear();
+
+        product loaded = productRepository.findById(entity.getId()).orElseThrow();
+        String logged = loaded.toString();
+        int hash = loaded.hashCode();
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isEqualTo(1);
+        assertThat(Hibernate.isInitialized(loaded.getCategory())).isFalse();
+        assertThat(logged).contains("SKU-LAZY").doesNotContain("Electronics");
+        assertThat(hash).isEqualTo(loaded.hashCode());
+    }
+
+    @Test
+    void repeatedProductLinesAreValidatedAgainstTotalQuantity() {
+        Integer productId = productIds.get(0);
+        TransactionRequestDTO request = TransactionRequestDTO.builder()
+                .transactionDate(LocalDate.of(2026, 2, 13))
+                .items(List.of(
+                        new TransactionItemDTO(productId, 60),
+                        new TransactionItemDTO(productId, 60)))
+                .build();
+
+        assertThatThrownBy(() -> transactionService.processTransaction(request))
+                .isInstanceOf(BusinessException.class)
+                .extracting(e -> ((BusinessException) e).getErrorCode())
+                .isEqualTo(ErrorCode.INSUFFICIENT_STOCK);
+    }
+
+    private Statistics statistics() {
+        return entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+    }
+}
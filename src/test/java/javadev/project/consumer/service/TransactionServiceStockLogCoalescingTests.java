@@ -0,0 +1,71 @@
+package javadev.project.consumer.service;
+
+import jakarta.persistence.EntityManager;
+import javadev.project.consumer.dto.BatchResultDTO;
+import javadev.project.consumer.dto.TransactionItemDTO;
+import javadev.project.consumer.dto.TransactionRequestDTO;
+import javadev.project.consumer.entity.product;
+import javadev.project.consumer.entity.stockLog;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static javadev.project.consumer.service.ProductFixtures.DEFAULT_STOCK;
+import static javadev.project.consumer.service.ProductFixtures.createProduct;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifies that coalesced SALE stock logs still reconcile with product stock
+ */
+@TransactionServiceSlice(properties = "stock.log.coalesce.enabled=true")
+class TransactionServiceStockLogCoalescingTests {
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void batchWritesOneSaleRowPerProduct() {
+        Integer first = createProduct(entityManager, "SKU-A");
+        Integer second = createProduct(entityManager, "SKU-B");
+
+        BatchResultDTO result = transactionService.processBatch(List.of(
+                request(new TransactionItemDTO(first, 2), new TransactionItemDTO(second, 1)),
+                request(new TransactionItemDTO(first, 3)),
+                request(new TransactionItemDTO(first, 5), new TransactionItemDTO(second, 4))));
+        entityManager.flush();
+        entityManager.clear();
+
+        assertThat(result.getProcessed()).hasSize(3);
+
+        List<stockLog> logs = entityManager
+                .createQuery("SELECT sl FROM stockLog sl WHERE sl.product.id = :id", stockLog.class)
+                .setParameter("id", first)
+                .getResultList();
+        assertThat(logs).singleElement().satisfies(log -> {
+            assertThat(log.getQuantityChange()).isEqualTo(-10);
+            assertThat(log.getMovementCount()).isEqualTo(3);
+        });
+
+        for (Integer productId : List.of(first, second)) {
+            Long logged = entityManager
+                    .createQuery("SELECT SUM(sl.quantityChange) FROM stockLog sl WHERE sl.product.id = :id",
+                            Long.class)
+                    .setParameter("id", productId)
+                    .getSingleResult();
+            Integer stock = entityManager.find(product.class, productId).getCurrentStock();
+            assertThat(DEFAULT_STOCK + logged).isEqualTo(stock.longValue());
+        }
+    }
+
+    private TransactionRequestDTO request(TransactionItemDTO... items) {
+        return TransactionRequestDTO.builder()
+                .transactionDate(LocalDate.of(2026, 2, 13))
+                .items(List.of(items))
+                .build();
+    }
+}
@@ -0,0 +1,92 @@
+package javadev.project.consumer.service;
+
+import jakarta.persistence.EntityManager;
+import javadev.project.consumer.dto.TransactionItemDTO;
+import javadev.project.consumer.dto.TransactionRequestDTO;
+import javadev.project.consumer.dto.ValidationResultDTO;
+import javadev.project.consumer.exception.ErrorCode;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static javadev.project.consumer.service.ProductFixtures.createProduct;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifies that invalid sales are rejected before the database transaction
+ * with stackless errors, and that unknown products are only looked up once
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({ TransactionValidator.class, ProductService.class, ProductCatalogCache.class, LogSampler.class,
+        LocalValidatorFactoryBean.class })
+class TransactionValidatorTests {
+
+    @Autowired
+    private TransactionValidator transactionValidator;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void validRequestIsAccepted() {
+        Integer productId = createProduct(entityManager, "SKU-VALID");
+
+        ValidationResultDTO result = transactionValidator.validate(request(LocalDate.of(2026, 2, 13),
+                List.of(new TransactionItemDTO(productId, 2), new TransactionItemDTO(productId, 1))));
+
+        assertThat(result.isValid()).isTrue();
+        assertThat(result.getRejection()).isNull();
+    }
+
+    @Test
+    void constraintViolationsMapToErrorCodes() {
+        Integer productId = createProduct(entityManager, "SKU-CONSTRAINTS");
+
+        assertRejected(request(null, List.of(new TransactionItemDTO(productId, 1))),
+                ErrorCode.INVALID_TRANSACTION_DATE);
+        assertRejected(request(LocalDate.of(2026, 2, 13), List.of()), ErrorCode.EMPTY_TRANSACTION_ITEMS);
+        assertRejected(request(LocalDate.of(2026, 2, 13), List.of(new TransactionItemDTO(productId, 0))),
+                ErrorCode.INVALID_QUANTITY);
+        assertRejected(request(LocalDate.of(2026, 2, 13), List.of(new TransactionItemDTO(null, 1))),
+                ErrorCode.VALIDATION_ERROR);
+    }
+
+    @Test
+    void unknownProductIsRejectedAndRememberedByTheCache() {
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        TransactionRequestDTO request = request(LocalDate.of(2026, 2, 13), List.of(new TransactionItemDTO(999_999, 1)));
+
+        ValidationResultDTO first = transactionValidator.validate(request);
+        statistics.clear();
+        ValidationResultDTO second = transactionValidator.validate(request);
+
+        for (ValidationResultDTO result : List.of(first, second)) {
+            assertThat(result.isValid()).isFalse();
+            assertThat(result.getRejection().getErrorCode()).isEqualTo(ErrorCode.PRODUCT_NOT_FOUND);
+            assertThat(result.getRejection().getStackTrace()).isEmpty();
+            assertThat(result.getRejection().getDetails()).containsEntry("productId", 999_999);
+        }
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    private void assertRejected(TransactionRequestDTO request, ErrorCode errorCode) {
+        ValidationResultDTO result = transactionValidator.validate(request);
+        assertThat(result.isValid()).isFalse();
+        assertThat(result.getRejection().getErrorCode()).isEqualTo(errorCode);
+        assertThat(result.getRejection().getStackTrace()).isEmpty();
+    }
+
+    private TransactionRequestDTO request(LocalDate transactionDate, List<TransactionItemDTO> items) {
+        return TransactionRequestDTO.builder()
+                .transactionDate(transactionDate)
+                .items(items)
+                .build();
+    }
+}